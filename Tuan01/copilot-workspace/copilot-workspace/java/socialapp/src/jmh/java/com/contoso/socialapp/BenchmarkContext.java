@@ -0,0 +1,91 @@
+package com.contoso.socialapp;
+
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a fresh temp-file SQLite database.
+ * The read cache is disabled so benchmarks measure the database path.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+    private static final int SEED_CHUNK = 5_000;
+
+    private final Path database;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(Path database, ConfigurableApplicationContext context) {
+        this.database = database;
+        this.context = context;
+    }
+
+    public static BenchmarkContext start(String... properties) {
+        try {
+            Path database = Files.createTempFile("socialapp-bench", ".db");
+            List<String> args = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                    "--spring.datasource.url=jdbc:sqlite:" + database,
+                    "--spring.jpa.show-sql=false",
+                    "--spring.cache.type=none",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.contoso.socialapp=WARN",
+                    "--logging.level.org.hibernate.SQL=WARN"));
+            for (String property : properties) {
+                args.add("--" + property);
+            }
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SocialappApplication.class)
+                    .web(WebApplicationType.NONE)
+                    // Passed as arguments so they take precedence over application.properties
+                    .run(args.toArray(String[]::new));
+            return new BenchmarkContext(database, context);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Inserts posts in chunked transactions and returns their ids in insertion order.
+     */
+    public List<String> seedPosts(int count) {
+        PostRepository postRepository = bean(PostRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        List<String> ids = new ArrayList<>(count);
+        for (int start = 0; start < count; start += SEED_CHUNK) {
+            int end = Math.min(count, start + SEED_CHUNK);
+            int first = start;
+            transaction.executeWithoutResult(status -> {
+                for (int i = first; i < end; i++) {
+                    Post post = postRepository.save(Post.builder()
+                            .username("user" + (i % 1_000))
+                            .content("Benchmark post number " + i + " with a sentence or two of typical length.")
+                            .likeCount(i % 50)
+                            .commentCount(i % 7)
+                            .build());
+                    ids.add(post.getId());
+                }
+            });
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        Files.deleteIfExists(database);
+    }
+}
@@ -0,0 +1,132 @@
+package com.contoso.socialapp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request: from launching the JVM to the first successful {@code GET /api/posts}, against a database
+ * migrated by the warmup start. Runs the fast-startup distribution, so build it and its class data sharing archive
+ * first: ./gradlew cdsArchive jmh -Pjmh.includes=StartupBenchmark
+ * <ul>
+ * <li>{@code prod}: the prod profile, as started today</li>
+ * <li>{@code lazy}: plus the fast-startup profile (lazy beans, no schema introspection)</li>
+ * <li>{@code aot}: plus the AOT-processed bean definitions</li>
+ * <li>{@code aot-cds}: plus the class data sharing archive</li>
+ * <li>{@code aot-cds-c1}: plus -XX:TieredStopAtLevel=1, as Dockerfile.java starts it</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    @Param({"prod", "lazy", "aot", "aot-cds", "aot-cds-c1"})
+    private String mode;
+
+    @Param("build/fast-startup")
+    private String distribution;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Path directory;
+    private Path database;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Path.of(distribution).toAbsolutePath();
+        if (!Files.exists(directory.resolve("app.jar")) || !Files.exists(directory.resolve("app.jsa"))) {
+            throw new IllegalStateException("Run ./gradlew cdsArchive first: no app.jar and app.jsa in " + directory);
+        }
+        database = Files.createTempFile("socialapp-startup", ".db");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (String suffix : List.of("", "-wal", "-shm")) {
+            Files.deleteIfExists(Path.of(database + suffix));
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        process = new ProcessBuilder(command(port))
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/posts?limit=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " in mode " + mode);
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException notListeningYet) {
+                // retry
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No response within " + TIMEOUT + " in mode " + mode);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    // The JVM running the benchmark, which is the one the Gradle build trained the archive with
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (mode.startsWith("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=app.jsa");
+            command.add("-Xlog:cds=off");
+        }
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.endsWith("-c1")) {
+            command.add("-XX:TieredStopAtLevel=1");
+        }
+        command.addAll(List.of("-jar", "app.jar",
+                "--spring.profiles.active=" + (mode.equals("prod") ? "prod" : "prod,fast-startup"),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:sqlite:" + database + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+                "--socialapp.datasource.reader.jdbc-url=jdbc:sqlite:" + database + "?open_mode=1&busy_timeout=5000"));
+        return command;
+    }
+}
@@ -0,0 +1,79 @@
+package com.contoso.socialapp.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a feed page in each wire format the API negotiates, with mappers configured the way Spring MVC
+ * builds them, with and without the gzip compression Tomcat applies. Bytes on the wire per format are printed at
+ * setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<PostResponse> posts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        posts = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            posts.add(PostResponse.builder()
+                    .id(UUID.randomUUID().toString())
+                    .username("user" + i)
+                    .content("Benchmark post number " + i + " with a sentence or two of typical length.")
+                    .createdAt(Instant.ofEpochMilli(now - i * 1000L).toString())
+                    .updatedAt(i % 3 == 0 ? Instant.ofEpochMilli(now).toString() : null)
+                    .likesCount(i % 50)
+                    .commentsCount(i % 7)
+                    .build());
+        }
+        System.out.printf("%n%s, %d posts: %d bytes, %d gzipped%n", format, size, serializeFeedPage().length,
+                serializeAndGzipFeedPage().length);
+    }
+
+    @Benchmark
+    public byte[] serializeFeedPage() throws IOException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipFeedPage() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, posts);
+        }
+        return bytes.toByteArray();
+    }
+}
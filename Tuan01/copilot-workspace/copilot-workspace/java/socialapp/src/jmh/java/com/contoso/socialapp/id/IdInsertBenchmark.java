@@ -0,0 +1,83 @@
+package com.contoso.socialapp.id;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts batches of posts with a comment each into a table that already holds {@code existingPosts} rows, per id
+ * generator. Random UUIDs spread inserts over the whole primary key and (post_id, created_at, id) B-trees; time-ordered
+ * ids append to their right edge. Table and index sizes are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdInsertBenchmark {
+
+    private static final int BATCH = 500;
+
+    @Param({"uuid", "uuid-v7", "snowflake"})
+    private String generator;
+
+    @Param({"100000"})
+    private int existingPosts;
+
+    private BenchmarkContext context;
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("socialapp.ids.generator=" + generator);
+        context.seedPosts(existingPosts);
+        postRepository = context.bean(PostRepository.class);
+        commentRepository = context.bean(CommentRepository.class);
+        transaction = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+    }
+
+    @Benchmark
+    public void insertBatch() {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH; i++) {
+                Post post = postRepository.save(Post.builder()
+                        .username("writer")
+                        .content("Benchmark post with a sentence or two of typical length.")
+                        .build());
+                commentRepository.save(Comment.builder()
+                        .postId(post.getId())
+                        .username("reader")
+                        .content("A reply")
+                        .build());
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+        // Iterations are time-bound, so faster generators end with more rows; sizes are reported per row
+        long posts = jdbc.queryForObject("SELECT count(*) FROM posts", Long.class);
+        long comments = jdbc.queryForObject("SELECT count(*) FROM comments", Long.class);
+        List<String> sizes = jdbc.query("SELECT name, sum(pgsize) AS bytes FROM dbstat "
+                        + "WHERE name IN ('posts', 'sqlite_autoindex_posts_1', 'comments', 'sqlite_autoindex_comments_1', "
+                        + "'idx_comments_post_id_created_at_id') GROUP BY name ORDER BY name",
+                (rs, rowNum) -> rs.getString("name") + "=" + rs.getLong("bytes")
+                        / (rs.getString("name").contains("posts") ? posts : comments) + " B/row");
+        System.out.println("\n[" + generator + "] " + posts + " posts, " + String.join(", ", sizes));
+        context.close();
+    }
+}
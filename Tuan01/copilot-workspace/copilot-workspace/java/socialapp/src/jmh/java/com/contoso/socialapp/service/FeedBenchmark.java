@@ -0,0 +1,67 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.PageCursor;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed listing at growing table sizes. With keyset pagination the deep page should cost the same as the first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FeedBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int postCount;
+
+    private BenchmarkContext context;
+    private PostService postService;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        context.seedPosts(postCount);
+        postService = context.bean(PostService.class);
+
+        // Cursor positioned 90% of the way down the feed
+        int pageSize = PostService.DEFAULT_PAGE_SIZE;
+        int deepPageIndex = (postCount * 9 / 10) / pageSize;
+        List<PostResponse> page = context.bean(PostRepository.class).findFeedPage(PageRequest.of(deepPageIndex, pageSize));
+        PostResponse last = page.get(page.size() - 1);
+        deepCursor = new PageCursor(Timestamps.parse(last.getCreatedAt()), last.getId()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<PostResponse> firstPage() {
+        return postService.getPosts(null, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostResponse> deepPage() {
+        return postService.getPosts(deepCursor, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostResponse> maxPage() {
+        return postService.getPosts(null, PostService.MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,69 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.LikeResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One like followed by one unlike of the same post, i.e. two write transactions per operation. The SQL statements
+ * each step issues are counted once at setup and printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LikeServiceBenchmark {
+
+    private static final int POST_COUNT = 1_000;
+
+    private BenchmarkContext context;
+    private LikeService likeService;
+    private List<String> postIds;
+    private final LikeRequest request = new LikeRequest();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.jpa.properties.hibernate.generate_statistics=true");
+        postIds = context.seedPosts(POST_COUNT);
+        likeService = context.bean(LikeService.class);
+        request.setUsername("benchmark-user");
+
+        Statistics statistics = context.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        String postId = postIds.get(0);
+        System.out.printf("%nStatements per like: %d, repeated like: %d, unlike: %d%n",
+                statements(statistics, () -> likeService.likePost(postId, request)),
+                statements(statistics, () -> likeService.likePost(postId, request)),
+                statements(statistics, () -> likeService.unlikePost(postId, request)));
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private static long statements(Statistics statistics, Runnable operation) {
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public LikeResponse toggleLike() {
+        String postId = postIds.get(next++ % POST_COUNT);
+        LikeResponse like = likeService.likePost(postId, request);
+        likeService.unlikePost(postId, request);
+        return like;
+    }
+}
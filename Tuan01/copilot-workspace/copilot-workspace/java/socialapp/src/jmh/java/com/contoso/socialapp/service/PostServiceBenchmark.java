@@ -0,0 +1,56 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostServiceBenchmark {
+
+    private static final int POST_COUNT = 10_000;
+
+    private BenchmarkContext context;
+    private PostService postService;
+    private PostService postServiceTarget;
+    private List<String> postIds;
+    private Post post;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        postIds = context.seedPosts(POST_COUNT);
+        postService = context.bean(PostService.class);
+        // mapToPostResponse is not advised, so call it on the bean behind the transactional proxy
+        postServiceTarget = (PostService) AopProxyUtils.getSingletonTarget(postService);
+        post = context.bean(PostRepository.class).findById(postIds.get(POST_COUNT / 2)).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public PostResponse mapToPostResponse() {
+        return postServiceTarget.mapToPostResponse(post);
+    }
+
+    @Benchmark
+    public PostResponse getPostById() {
+        String postId = postIds.get(ThreadLocalRandom.current().nextInt(POST_COUNT));
+        return postService.getPostById(postId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of the feed and of a post's comments, read as managed entities and mapped (the old read path) against
+ * the response projections the services use. Compare allocation with the GC profiler:
+ * ./gradlew jmh -Pjmh.includes=ReadProjectionBenchmark -Pjmh.args='-prof gc'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadProjectionBenchmark {
+
+    private static final int POST_COUNT = 10_000;
+    private static final int PAGE_SIZE = PostService.DEFAULT_PAGE_SIZE;
+
+    private BenchmarkContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+    private String postId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        List<String> postIds = context.seedPosts(POST_COUNT);
+        postId = postIds.get(POST_COUNT / 2);
+        readOnly = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = context.bean(EntityManager.class);
+        postRepository = context.bean(PostRepository.class);
+        commentRepository = context.bean(CommentRepository.class);
+
+        CommentService commentService = context.bean(CommentService.class);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            CommentCreateRequest request = new CommentCreateRequest();
+            request.setUsername("user" + i);
+            request.setContent("Benchmark comment number " + i + ", about as long as a typical reply.");
+            commentService.createComment(postId, request);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostResponse> feedEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT p FROM Post p ORDER BY p.createdAt DESC, p.id DESC", Post.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultStream()
+                .map(ReadProjectionBenchmark::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<PostResponse> feedProjection() {
+        return readOnly.execute(status -> postRepository.findFeedPage(PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public List<CommentResponse> commentsEntities() {
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT c FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt ASC, c.id ASC",
+                        Comment.class)
+                .setParameter("postId", postId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultStream()
+                .map(ReadProjectionBenchmark::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<CommentResponse> commentsProjection() {
+        return readOnly.execute(status -> commentRepository.findPageByPostId(postId, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    private static PostResponse toResponse(Post post) {
+        return PostResponse.builder()
+                .id(post.getId())
+                .username(post.getUsername())
+                .content(post.getContent())
+                .createdAt(Timestamps.format(post.getCreatedAt()))
+                .updatedAt(Timestamps.format(post.getUpdatedAt()))
+                .likesCount(post.getLikeCount())
+                .commentsCount(post.getCommentCount())
+                .build();
+    }
+
+    private static CommentResponse toResponse(Comment comment) {
+        return CommentResponse.builder()
+                .id(comment.getId())
+                .postId(comment.getPostId())
+                .username(comment.getUsername())
+                .content(comment.getContent())
+                .createdAt(Timestamps.format(comment.getCreatedAt()))
+                .updatedAt(Timestamps.format(comment.getUpdatedAt()))
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.BenchmarkContext;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.OffsetCursor;
+import com.contoso.socialapp.dto.PostSearchResult;
+import com.contoso.socialapp.id.Ids;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over a corpus of {@code postCount} posts, a third of them with a comment, written in a synthetic
+ * Zipf-distributed vocabulary so terms range from very common to rare. The number of posts each query term
+ * appears in is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int WORDS_PER_POST = 12;
+    private static final int WORDS_PER_COMMENT = 8;
+    private static final int SEED_CHUNK = 10_000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "re", "tu", "san", "ver", "no", "pe", "zu",
+            "di", "gor", "ha", "qui", "bel", "ost"};
+
+    @Param({"1000000"})
+    private int postCount;
+
+    private BenchmarkContext context;
+    private SearchService searchService;
+    private String[] words;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        searchService = context.bean(SearchService.class);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(i);
+        }
+        long started = System.currentTimeMillis();
+        seed();
+        System.out.printf("%nSeeded %d posts in %d s%n", postCount, (System.currentTimeMillis() - started) / 1000);
+        JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+        for (int rank : new int[] {0, 9, 49, 99, 9_999}) {
+            System.out.printf("'%s' (rank %d) is in %d posts%n", words[rank], rank + 1, jdbc.queryForObject(
+                    "SELECT count(*) FROM posts_fts WHERE posts_fts MATCH ?", Long.class, words[rank]));
+        }
+        deepCursor = new OffsetCursor(500).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<PostSearchResult> rareTerm() {
+        return searchService.search(words[9_999], null, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostSearchResult> mediumTerm() {
+        return searchService.search(words[99], null, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostSearchResult> twoCommonTerms() {
+        return searchService.search(words[9] + " " + words[49], null, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostSearchResult> mostCommonTerm() {
+        return searchService.search(words[0], null, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostSearchResult> mostCommonTermDeepPage() {
+        return searchService.search(words[0], deepCursor, PostService.DEFAULT_PAGE_SIZE);
+    }
+
+    // Distinct pronounceable words, so the porter stemmer leaves them apart
+    private static String word(int index) {
+        StringBuilder word = new StringBuilder();
+        int remaining = index + SYLLABLES.length;
+        while (remaining > 0) {
+            word.append(SYLLABLES[remaining % SYLLABLES.length]);
+            remaining /= SYLLABLES.length;
+        }
+        return word.toString();
+    }
+
+    private void seed() {
+        // Cumulative Zipf(s = 1) weights; a uniform draw is mapped to a rank by binary search
+        double[] cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        Random random = new Random(42);
+        JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+        long createdAt = System.currentTimeMillis() - postCount;
+        for (int start = 0; start < postCount; start += SEED_CHUNK) {
+            List<Object[]> posts = new ArrayList<>(SEED_CHUNK);
+            List<Object[]> comments = new ArrayList<>(SEED_CHUNK / 3 + 1);
+            for (int i = start; i < Math.min(postCount, start + SEED_CHUNK); i++) {
+                long time = createdAt + i;
+                String id = Ids.next(time);
+                posts.add(new Object[] {id, "user" + (i % 1_000), text(random, cumulative, total, WORDS_PER_POST), time,
+                        i % 3 == 0 ? 1 : 0});
+                if (i % 3 == 0) {
+                    comments.add(new Object[] {Ids.next(time), id, "reader" + (i % 100),
+                            text(random, cumulative, total, WORDS_PER_COMMENT), time});
+                }
+            }
+            transaction.executeWithoutResult(status -> {
+                jdbc.batchUpdate("INSERT INTO posts (id, username, content, created_at, like_count, comment_count) "
+                        + "VALUES (?, ?, ?, ?, 0, ?)", posts);
+                jdbc.batchUpdate("INSERT INTO comments (id, post_id, username, content, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?)", comments);
+            });
+        }
+    }
+
+    private String text(Random random, double[] cumulative, double total, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            text.append(i == 0 ? "" : " ").append(words[rank < 0 ? -rank - 1 : rank]);
+        }
+        return text.append('.').toString();
+    }
+}
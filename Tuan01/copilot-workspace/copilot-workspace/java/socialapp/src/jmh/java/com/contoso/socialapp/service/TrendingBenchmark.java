@@ -0,0 +1,54 @@
+package com.contoso.socialapp.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory trending ranking with {@code trackedPosts} scored posts: reading the top 20 should cost the same
+ * however many posts are tracked, and recording an event should stay cheap as the map grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrendingBenchmark {
+
+    private static final int CAPACITY = 100;
+    private static final long HALF_LIFE_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    @Param({"10000", "1000000"})
+    private int trackedPosts;
+
+    private TrendingRanking ranking;
+    private String[] postIds;
+    private Random random;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        now = System.currentTimeMillis();
+        random = new Random(42);
+        ranking = new TrendingRanking(CAPACITY, HALF_LIFE_MILLIS, now);
+        postIds = new String[trackedPosts];
+        for (int i = 0; i < trackedPosts; i++) {
+            postIds[i] = "post-" + i;
+            // Spread over the last day, so the ranking holds a realistic mix of fresh and fading scores
+            ranking.add(postIds[i], 1 + random.nextInt(20), now - random.nextLong(TimeUnit.DAYS.toMillis(1)));
+        }
+    }
+
+    @Benchmark
+    public List<TrendingRanking.Scored> top20() {
+        return ranking.top(20, now);
+    }
+
+    @Benchmark
+    public void addLike() {
+        ranking.add(postIds[random.nextInt(trackedPosts)], TrendingService.LIKE_WEIGHT, now);
+    }
+}
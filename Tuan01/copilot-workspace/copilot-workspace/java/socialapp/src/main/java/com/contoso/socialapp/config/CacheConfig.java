@@ -0,0 +1,18 @@
+package com.contoso.socialapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Read cache for hot posts and comment threads. Cache sizes and TTL come from spring.cache.caffeine.spec.
+ * The caching advice is ordered outside the transaction advice, so evictions happen after commit
+ * and cache hits never open a transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String POSTS_CACHE = "posts";
+    public static final String COMMENTS_CACHE = "comments";
+}
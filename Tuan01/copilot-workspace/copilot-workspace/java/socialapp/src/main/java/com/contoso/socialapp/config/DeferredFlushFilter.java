@@ -0,0 +1,108 @@
+package com.contoso.socialapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lets Tomcat's compression threshold ({@code server.compression.min-response-size}) apply to message converter
+ * output. Spring's converters flush after writing a body, which commits the response without a Content-Length,
+ * and Tomcat compresses every response of unknown length. Dropping those flushes for the compressible types keeps
+ * a body that fits the response buffer uncommitted until the request completes, when Tomcat sets its length.
+ * Other types, such as the SSE and NDJSON streams, flush as usual.
+ */
+@Component
+public class DeferredFlushFilter extends OncePerRequestFilter {
+
+    private final Set<String> deferredTypes;
+
+    public DeferredFlushFilter(@Value("${server.compression.mime-types}") String[] mimeTypes) {
+        this.deferredTypes = Set.of(mimeTypes);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new HttpServletResponseWrapper(response) {
+
+            private ServletOutputStream outputStream;
+
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                if (outputStream == null) {
+                    outputStream = new DeferredFlushOutputStream(super.getOutputStream(), this);
+                }
+                return outputStream;
+            }
+
+            @Override
+            public void flushBuffer() throws IOException {
+                if (!deferred(this)) {
+                    super.flushBuffer();
+                }
+            }
+        });
+    }
+
+    private boolean deferred(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        return deferredTypes.contains((parameters < 0 ? contentType : contentType.substring(0, parameters)).trim());
+    }
+
+    private final class DeferredFlushOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final HttpServletResponse response;
+
+        private DeferredFlushOutputStream(ServletOutputStream delegate, HttpServletResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!deferred(response)) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.id.IdGenerator;
+import org.springdoc.core.configuration.SpringDocUIConfiguration;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Lazy initialization for the "fast-startup" profile (spring.main.lazy-initialization): springdoc, the OpenAPI
+ * document, controllers and services are created by the first request that needs them. Beans with startup work of
+ * their own stay eager, so tombstoned posts are still purged, trending scores loaded and the read-only pool started
+ * before traffic arrives, and the configured id generator is installed before the first entity is persisted.
+ * springdoc marks its own beans {@code @Lazy(false)}, which would build the OpenAPI document and
+ * {@link OpenApiConfig}'s at startup, so they are made lazy here as well; all but the UI configuration, which
+ * resolves the swagger-ui webjar version its resource handler is registered under.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter startupWorkExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SmartInitializingSingleton.class, IdGenerator.class);
+    }
+
+    @Bean
+    static BeanFactoryPostProcessor lazySpringdocPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                if ((isSpringdoc(definition.getBeanClassName()) || isSpringdoc(definition.getFactoryBeanName()))
+                        && !SpringDocUIConfiguration.class.getName().equals(definition.getBeanClassName())) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // Auto-configured @Bean methods are registered under their configuration class's name as factory bean
+    private static boolean isSpringdoc(String name) {
+        return name != null && name.startsWith("org.springdoc.");
+    }
+}
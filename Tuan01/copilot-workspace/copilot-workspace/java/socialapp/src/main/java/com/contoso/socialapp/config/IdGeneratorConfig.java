@@ -0,0 +1,24 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.id.IdGenerator;
+import com.contoso.socialapp.id.Ids;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the primary key generator for posts and comments ({@code socialapp.ids.generator}).
+ * Instances sharing a database must use distinct {@code socialapp.ids.node-id} values with the snowflake generator.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${socialapp.ids.generator:snowflake}") String type,
+                                   @Value("${socialapp.ids.node-id:0}") int nodeId) {
+        IdGenerator generator = Ids.create(type, nodeId);
+        // Entities pick it up in @PrePersist
+        Ids.use(generator);
+        return generator;
+    }
+}
@@ -0,0 +1,119 @@
+package com.contoso.socialapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the Flyway migrations in {@code db/migration}, first adopting databases created before them, when
+ * Hibernate's schema update maintained the tables. Such a database has the tables but no Flyway history: its tables
+ * are renamed to {@code <table>_legacy} and stripped of their indexes, triggers and search index, the migrations
+ * create the current schema, and the rows are copied back. Only the columns both versions have are copied; columns
+ * added since start out empty, as they would have after a schema update. The migrations' triggers index the copied
+ * rows for search. ISO-8601 text timestamps from the oldest databases become epoch milliseconds. Each table is
+ * copied and dropped in one transaction, so a start interrupted halfway picks up the remaining {@code _legacy}
+ * tables next time.
+ */
+@Slf4j
+@Component
+public class LegacySchemaMigration implements FlywayMigrationStrategy {
+
+    // In copy order
+    private static final List<String> TABLES =
+            List.of("posts", "comments", "likes", "post_tombstones", "trending_scores", "trending_snapshot");
+
+    private static final Map<String, Set<String>> TIMESTAMP_COLUMNS = Map.of(
+            "posts", Set.of("created_at", "updated_at"),
+            "comments", Set.of("created_at", "updated_at"),
+            "likes", Set.of("created_at"));
+
+    private static final List<String> SEARCH_INDEXES = List.of(SearchIndexSetup.POSTS_INDEX, SearchIndexSetup.COMMENTS_INDEX);
+
+    private static final String LEGACY_SUFFIX = "_legacy";
+
+    @Override
+    public void migrate(Flyway flyway) {
+        DataSource dataSource = flyway.getConfiguration().getDataSource();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Integer objects = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM sqlite_master WHERE name NOT LIKE 'sqlite_%'", Integer.class);
+        if (!tableExists(jdbcTemplate, flyway.getConfiguration().getTable()) && objects != null && objects > 0) {
+            transactionTemplate.executeWithoutResult(status -> setAside(jdbcTemplate));
+            // Recorded below the first migration, which then runs as on an empty database
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .baselineVersion("0")
+                    .baselineDescription("Tables created by Hibernate")
+                    .load()
+                    .baseline();
+            log.info("Set aside tables created by Hibernate's schema update for migration");
+        }
+        flyway.migrate();
+
+        for (String table : TABLES) {
+            if (tableExists(jdbcTemplate, table + LEGACY_SUFFIX)) {
+                long rows = transactionTemplate.execute(status -> copyBack(jdbcTemplate, table));
+                log.info("Migrated {} rows of {}", rows, table);
+            }
+        }
+    }
+
+    // The migrations recreate the indexes, triggers and search index under the same names
+    private void setAside(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.queryForList("SELECT name FROM sqlite_master WHERE type = 'trigger' AND tbl_name IN (?, ?)",
+                String.class, "posts", "comments").forEach(trigger -> jdbcTemplate.execute("DROP TRIGGER " + trigger));
+        SEARCH_INDEXES.forEach(index -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + index));
+        for (String table : TABLES) {
+            if (!tableExists(jdbcTemplate, table)) {
+                continue;
+            }
+            jdbcTemplate.queryForList(
+                    "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL",
+                    String.class, table).forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+            jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + table + LEGACY_SUFFIX);
+        }
+    }
+
+    private long copyBack(JdbcTemplate jdbcTemplate, String table) {
+        Set<String> columns = columns(jdbcTemplate, table);
+        Set<String> timestampColumns = TIMESTAMP_COLUMNS.getOrDefault(table, Set.of());
+        List<String> shared = columns(jdbcTemplate, table + LEGACY_SUFFIX).stream()
+                .filter(columns::contains)
+                .toList();
+
+        String names = String.join(", ", shared);
+        // unixepoch(.., 'subsec') keeps millisecond precision of the stored ISO-8601 instant
+        String values = shared.stream()
+                .map(column -> timestampColumns.contains(column)
+                        ? "CASE WHEN typeof(" + column + ") = 'text' THEN CAST(ROUND(unixepoch(" + column
+                            + ", 'subsec') * 1000) AS INTEGER) ELSE " + column + " END"
+                        : column)
+                .collect(Collectors.joining(", "));
+        int rows = jdbcTemplate.update("INSERT INTO " + table + " (" + names + ") SELECT " + values
+                + " FROM " + table + LEGACY_SUFFIX);
+        jdbcTemplate.execute("DROP TABLE " + table + LEGACY_SUFFIX);
+        return rows;
+    }
+
+    private static Set<String> columns(JdbcTemplate jdbcTemplate, String table) {
+        return Set.copyOf(jdbcTemplate.queryForList("SELECT name FROM pragma_table_info(?)", String.class, table));
+    }
+
+    private static boolean tableExists(JdbcTemplate jdbcTemplate, String table) {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM sqlite_master WHERE type = 'table' AND name = ?", Integer.class, table);
+        return tables != null && tables > 0;
+    }
+}
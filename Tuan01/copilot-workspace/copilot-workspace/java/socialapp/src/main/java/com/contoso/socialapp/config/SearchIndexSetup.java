@@ -0,0 +1,17 @@
+package com.contoso.socialapp.config;
+
+/**
+ * The SQLite FTS5 indexes behind post search: {@code posts_fts} and {@code comments_fts}, created by the
+ * {@code V1__create_schema} migration and keyed by {@code search_rowid} since {@code V3}. Both are external-content
+ * tables over the {@code content} column, so the text is stored once in the base table and the index holds only
+ * terms, keyed by the base row's {@code search_rowid}: an INTEGER PRIMARY KEY, which {@code VACUUM} does not
+ * renumber. Triggers on the base tables keep them in sync with every write path.
+ */
+public final class SearchIndexSetup {
+
+    public static final String POSTS_INDEX = "posts_fts";
+    public static final String COMMENTS_INDEX = "comments_fts";
+
+    private SearchIndexSetup() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.contoso.socialapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the application's {@code @Service} beans as {@value #SERVICE_TIMER}, tagged with
+ * class, method and exception, and published with a percentile histogram. The advice is ordered outside the caching
+ * and transaction advice, so a recorded call includes cache hits and the commit.
+ * Repository calls are timed by Spring Boot as {@code spring.data.repository.invocations}.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_TIMER = "socialapp.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(com.contoso.socialapp.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.contoso.socialapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Split SQLite pools for the "prod" profile. SQLite allows a single writer at a time, so all
+ * read-write transactions share one connection instead of fighting over the file lock, while
+ * {@code @Transactional(readOnly = true)} work is served by a pool of read-only connections that
+ * WAL mode lets run alongside the writer.
+ */
+@Configuration
+@Profile("prod")
+public class SqliteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writerDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("sqlite-writer");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("socialapp.datasource.reader")
+    public HikariDataSource readerDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("sqlite-reader");
+        dataSource.setDriverClassName(properties.getDriverClassName());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // Physical connections are fetched on first use, after the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writerDataSource,
+                                 @Qualifier("readerDataSource") DataSource readerDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writerDataSource);
+        dataSource.setReadOnlyDataSource(readerDataSource);
+        return dataSource;
+    }
+
+    // Hikari starts a pool inside a synchronized block on its first getConnection(). The writer pool is started by
+    // schema setup, but the reader pool would otherwise start on the first read-only request, opening connections
+    // while holding the monitor and pinning every virtual thread that queues behind it. Start it once the schema exists.
+    @Bean
+    public SmartInitializingSingleton readerPoolStarter(@Qualifier("readerDataSource") HikariDataSource readerDataSource) {
+        return () -> {
+            try (Connection ignored = readerDataSource.getConnection()) {
+                // pool started
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not start the read-only SQLite pool", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.BulkImportResponse;
+import com.contoso.socialapp.dto.CounterReconciliationResponse;
+import com.contoso.socialapp.dto.IdMigrationResponse;
+import com.contoso.socialapp.service.BulkImportService;
+import com.contoso.socialapp.service.CounterReconciliationService;
+import com.contoso.socialapp.service.ExportService;
+import com.contoso.socialapp.service.IdMigrationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Maintenance operations")
+public class AdminController {
+
+    private final CounterReconciliationService counterReconciliationService;
+    private final IdMigrationService idMigrationService;
+    private final BulkImportService bulkImportService;
+    private final ExportService exportService;
+
+    @PostMapping("/counters/reconcile")
+    @Operation(summary = "Recompute drifted like/comment counters")
+    public ResponseEntity<CounterReconciliationResponse> reconcileCounters() {
+        CounterReconciliationResponse result = counterReconciliationService.reconcile();
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/ids/migrate")
+    @Operation(summary = "Re-key posts and comments that still use random UUIDs with time-ordered ids")
+    public ResponseEntity<IdMigrationResponse> migrateIds() {
+        IdMigrationResponse result = idMigrationService.migrate();
+        return ResponseEntity.ok(result);
+    }
+
+    // The body is consumed as a stream; it is never buffered as a whole
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(summary = "Bulk import posts, comments and likes from NDJSON")
+    public ResponseEntity<BulkImportResponse> importRecords(InputStream body) throws IOException {
+        BulkImportResponse result = bulkImportService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+
+    // Written from an async worker while the rows are read, so neither side holds the whole dataset
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export all posts with their comments and likes as NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportRecords(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"socialapp-export.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(exportService::exportNdjson);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            exportService.exportNdjson(compressed);
+            compressed.finish();
+        });
+    }
+}
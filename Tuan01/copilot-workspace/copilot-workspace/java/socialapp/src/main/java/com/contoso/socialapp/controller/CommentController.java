@@ -2,6 +2,7 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,9 +24,16 @@ public class CommentController {
 
     @GetMapping
     @Operation(summary = "List comments for a post")
-    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(@PathVariable String postId) {
-        List<CommentResponse> comments = commentService.getCommentsByPostId(postId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<List<CommentResponse>> getCommentsByPostId(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (ConditionalGet.notModified(request, commentService.getCommentsVersion(postId))) {
+            return null;
+        }
+        CursorPage<CommentResponse> page = commentService.getCommentsByPostId(postId, cursor, limit);
+        return PageHeaders.ok(page);
     }
 
     @PostMapping
@@ -0,0 +1,24 @@
+package com.contoso.socialapp.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs for resources versioned by a strictly increasing modification time in epoch milliseconds.
+ * The version is sent both as an ETag, which tells apart changes within the same second, and as Last-Modified;
+ * If-None-Match takes precedence over If-Modified-Since. The ETag is weak: the same version is served as JSON,
+ * CBOR or Smile, gzipped or not, and Tomcat does not compress responses carrying a strong ETag.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * True when the client's copy is current: the response has become a 304 and the handler should return null.
+     * Otherwise the validators are set on the response. Look the version up before loading the body, so a body
+     * is never older than the ETag it is sent with.
+     */
+    static boolean notModified(WebRequest request, long version) {
+        return request.checkNotModified("W/\"" + Long.toString(version, 36) + "\"", version);
+    }
+}
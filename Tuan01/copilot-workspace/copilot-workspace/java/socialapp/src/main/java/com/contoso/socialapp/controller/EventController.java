@@ -0,0 +1,25 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.service.LiveFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Live activity stream")
+public class EventController {
+
+    private final LiveFeed liveFeed;
+
+    // The request thread returns right away; events are written later by the subscriber's own virtual thread
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream new posts, comments and likes as Server-Sent Events")
+    public SseEmitter streamEvents(@RequestParam(required = false) String postId) {
+        return liveFeed.subscribe(postId);
+    }
+}
@@ -0,0 +1,25 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.CursorPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Keeps list endpoints returning plain JSON arrays; the cursor for the next page travels in a header.
+ */
+final class PageHeaders {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private PageHeaders() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
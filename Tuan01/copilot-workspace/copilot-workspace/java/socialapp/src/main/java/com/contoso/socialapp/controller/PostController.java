@@ -2,6 +2,8 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.SearchService;
+import com.contoso.socialapp.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -9,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,11 +22,33 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final SearchService searchService;
+    private final TrendingService trendingService;
 
     @GetMapping
     @Operation(summary = "List posts")
-    public ResponseEntity<List<PostResponse>> getAllPosts() {
-        List<PostResponse> posts = postService.getAllPosts();
+    public ResponseEntity<List<PostResponse>> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<PostResponse> page = postService.getPosts(cursor, limit);
+        return PageHeaders.ok(page);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search posts and their comments")
+    public ResponseEntity<List<PostSearchResult>> searchPosts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<PostSearchResult> page = searchService.search(q, cursor, limit);
+        return PageHeaders.ok(page);
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "List the posts with the most recent likes and comments")
+    public ResponseEntity<List<TrendingPostResponse>> getTrendingPosts(
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        List<TrendingPostResponse> posts = trendingService.getTrending(limit);
         return ResponseEntity.ok(posts);
     }
 
@@ -36,7 +61,10 @@ public class PostController {
 
     @GetMapping("/{postId}")
     @Operation(summary = "Get a post by ID")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable String postId) {
+    public ResponseEntity<PostResponse> getPostById(@PathVariable String postId, WebRequest request) {
+        if (ConditionalGet.notModified(request, postService.getPostVersion(postId))) {
+            return null;
+        }
         PostResponse post = postService.getPostById(postId);
         return ResponseEntity.ok(post);
     }
@@ -0,0 +1,54 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.*;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/users/{username}")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "A user's posts, comments and likes")
+public class UserController {
+
+    private final PostService postService;
+    private final CommentService commentService;
+    private final LikeService likeService;
+
+    @GetMapping("/posts")
+    @Operation(summary = "List a user's posts")
+    public ResponseEntity<List<PostResponse>> getPosts(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<PostResponse> page = postService.getPostsByUser(username, cursor, limit);
+        return PageHeaders.ok(page);
+    }
+
+    @GetMapping("/comments")
+    @Operation(summary = "List a user's comments")
+    public ResponseEntity<List<CommentResponse>> getComments(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<CommentResponse> page = commentService.getCommentsByUser(username, cursor, limit);
+        return PageHeaders.ok(page);
+    }
+
+    @GetMapping("/likes")
+    @Operation(summary = "List the posts a user liked")
+    public ResponseEntity<List<LikedPostResponse>> getLikedPosts(
+            @PathVariable String username,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<LikedPostResponse> page = likeService.getLikedPosts(username, cursor, limit);
+        return PageHeaders.ok(page);
+    }
+}
@@ -0,0 +1,21 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+/**
+ * A committed write, as pushed to live feed subscribers. {@code data} is the same representation the REST API
+ * returns for the created resource.
+ */
+@Data
+@Builder
+public class ActivityEvent {
+
+    public static final String POST_CREATED = "post.created";
+    public static final String COMMENT_CREATED = "comment.created";
+    public static final String LIKE_CREATED = "like.created";
+
+    private String type;
+    private String postId;
+    private Object data;
+}
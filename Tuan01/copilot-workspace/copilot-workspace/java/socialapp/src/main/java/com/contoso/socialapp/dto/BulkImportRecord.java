@@ -0,0 +1,17 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Data;
+
+/**
+ * One NDJSON line of a bulk import. {@code type} is post, comment or like; ids and createdAt (ISO-8601) are kept
+ * when given so imported history keeps its identities and order. Comments and likes reference their post by postId.
+ */
+@Data
+public class BulkImportRecord {
+    private String type;
+    private String id;
+    private String postId;
+    private String username;
+    private String content;
+    private String createdAt;
+}
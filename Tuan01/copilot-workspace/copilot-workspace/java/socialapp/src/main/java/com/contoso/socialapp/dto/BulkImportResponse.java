@@ -0,0 +1,26 @@
+package com.contoso.socialapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    // First failures only, up to socialapp.import.max-reported-errors
+    private List<RecordError> errors;
+    private long durationMs;
+
+    @Data
+    @AllArgsConstructor
+    public static class RecordError {
+        // 1-based line number in the request body
+        private long line;
+        private String message;
+    }
+}
@@ -1,10 +1,12 @@
 package com.contoso.socialapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class CommentResponse {
     private String id;
     private String postId;
@@ -12,4 +14,9 @@ public class CommentResponse {
     private String content;
     private String createdAt;
     private String updatedAt;
+
+    // Target of the comment projection queries, which read the stored epoch-millisecond timestamps
+    public CommentResponse(String id, String postId, String username, String content, Long createdAt, Long updatedAt) {
+        this(id, postId, username, content, Timestamps.format(createdAt), Timestamps.format(updatedAt));
+    }
 }
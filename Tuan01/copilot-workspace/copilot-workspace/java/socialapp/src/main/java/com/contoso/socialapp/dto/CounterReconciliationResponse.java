@@ -0,0 +1,12 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class CounterReconciliationResponse {
+    private int postsScanned;
+    private int postsCorrected;
+    private long durationMs;
+}
@@ -0,0 +1,14 @@
+package com.contoso.socialapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    // null when there are no further pages
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class IdMigrationResponse {
+    private int postsMigrated;
+    private int commentsMigrated;
+    private long durationMs;
+}
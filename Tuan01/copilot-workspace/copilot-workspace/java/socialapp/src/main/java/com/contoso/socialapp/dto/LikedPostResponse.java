@@ -0,0 +1,18 @@
+package com.contoso.socialapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LikedPostResponse {
+    private PostResponse post;
+    private String likedAt;
+
+    // Target of the liked-posts projection query, which reads the stored epoch-millisecond timestamps
+    public LikedPostResponse(String id, String username, String content, Long createdAt, Long updatedAt,
+                             int likesCount, int commentsCount, Long likedAt) {
+        this(new PostResponse(id, username, content, createdAt, updatedAt, likesCount, commentsCount),
+                Timestamps.format(likedAt));
+    }
+}
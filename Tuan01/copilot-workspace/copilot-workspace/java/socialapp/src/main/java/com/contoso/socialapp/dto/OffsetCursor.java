@@ -0,0 +1,33 @@
+package com.contoso.socialapp.dto;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked result list, exchanged with clients as an opaque token. Used where results are ordered by a
+ * score rather than a stable key, so there is no keyset to seek to.
+ */
+@Value
+public class OffsetCursor {
+    int offset;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OffsetCursor decode(String token) {
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new BadRequestException("invalid cursor");
+            }
+            return new OffsetCursor(offset);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.contoso.socialapp.dto;
+
+import com.contoso.socialapp.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position (createdAt, id) of the last row of a page, exchanged with clients as an opaque token.
+ */
+@Value
+public class PageCursor {
+    private static final char SEPARATOR = '|';
+
+    long createdAt;
+    String id;
+
+    public String encode() {
+        String raw = Long.toString(createdAt) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("invalid cursor");
+            }
+            return new PageCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("invalid cursor");
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.contoso.socialapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class PostResponse {
     private String id;
     private String username;
@@ -13,4 +15,11 @@ public class PostResponse {
     private String updatedAt;
     private int likesCount;
     private int commentsCount;
+
+    // Target of the feed projection query, which reads the stored epoch-millisecond timestamps
+    public PostResponse(String id, String username, String content, Long createdAt, Long updatedAt,
+                        int likesCount, int commentsCount) {
+        this(id, username, content, Timestamps.format(createdAt), Timestamps.format(updatedAt),
+                likesCount, commentsCount);
+    }
 }
@@ -0,0 +1,14 @@
+package com.contoso.socialapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PostSearchResult {
+    private PostResponse post;
+    // HTML-escaped excerpt of the best match with the matched terms in <mark> tags
+    private String snippet;
+    // The comment the snippet comes from; null when the post's own content matched best
+    private String commentId;
+}
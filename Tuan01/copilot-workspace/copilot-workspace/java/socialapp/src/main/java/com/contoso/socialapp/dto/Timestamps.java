@@ -0,0 +1,20 @@
+package com.contoso.socialapp.dto;
+
+import java.time.Instant;
+
+/**
+ * Timestamps are stored as epoch milliseconds and exchanged with clients as ISO-8601 instants.
+ */
+public final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    public static String format(Long epochMillis) {
+        return epochMillis == null ? null : Instant.ofEpochMilli(epochMillis).toString();
+    }
+
+    public static long parse(String isoInstant) {
+        return Instant.parse(isoInstant).toEpochMilli();
+    }
+}
@@ -0,0 +1,12 @@
+package com.contoso.socialapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TrendingPostResponse {
+    private PostResponse post;
+    // Likes and comments (weighted 1 and 2), each decayed by its age
+    private double score;
+}
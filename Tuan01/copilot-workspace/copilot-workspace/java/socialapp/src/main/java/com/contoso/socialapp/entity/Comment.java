@@ -1,13 +1,12 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.id.Ids;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
-import java.time.Instant;
-
 @Entity
 @Table(name = "comments")
 @Data
@@ -27,23 +26,25 @@ public class Comment {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Epoch milliseconds
     @Column(name = "created_at", nullable = false, updatable = false)
-    private String createdAt;
+    private Long createdAt;
 
     @Column(name = "updated_at")
-    private String updatedAt;
-
+    private Long updatedAt;
 
     @PrePersist
     protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = System.currentTimeMillis();
+        }
         if (this.id == null) {
-            this.id = java.util.UUID.randomUUID().toString();
+            this.id = Ids.next(this.createdAt);
         }
-        this.createdAt = Instant.now().toString();
     }
 
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = Instant.now().toString();
+        this.updatedAt = System.currentTimeMillis();
     }
 }
@@ -6,8 +6,6 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
-import java.time.Instant;
-
 @Entity
 @Table(name = "likes")
 @Data
@@ -24,12 +22,14 @@ public class Like {
     @Column(nullable = false)
     private String username;
 
+    // Epoch milliseconds
     @Column(name = "created_at", nullable = false, updatable = false)
-    private String createdAt;
-
+    private Long createdAt;
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = Instant.now().toString();
+        if (this.createdAt == null) {
+            this.createdAt = System.currentTimeMillis();
+        }
     }
 }
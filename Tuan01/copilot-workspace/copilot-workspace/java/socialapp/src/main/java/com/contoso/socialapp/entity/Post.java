@@ -1,5 +1,6 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.id.Ids;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,8 +9,6 @@ import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.time.Instant;
-
 @Entity
 @Table(name = "posts")
 @Data
@@ -26,23 +25,48 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Epoch milliseconds
     @Column(name = "created_at", nullable = false, updatable = false)
-    private String createdAt;
+    private Long createdAt;
 
     @Column(name = "updated_at")
-    private String updatedAt;
+    private Long updatedAt;
+
+    // Denormalized counters, maintained by in-database increments from LikeService and CommentService. Never part
+    // of an entity UPDATE, which would write back the values read before likes and comments committed since
+    @Builder.Default
+    @Column(name = "like_count", nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int likeCount = 0;
+
+    @Builder.Default
+    @Column(name = "comment_count", nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int commentCount = 0;
 
+    // Versions for conditional GETs: epoch milliseconds of the last change to the post as served (content and
+    // counters) and to its comments. Each change moves them forward by at least one (PostRepository.TOUCH_POST,
+    // TOUCH_COMMENTS), so they double as strong ETags. Null on rows written before the columns existed
+    @Column(name = "modified_at")
+    private Long modifiedAt;
+
+    @Column(name = "comments_modified_at", updatable = false)
+    private Long commentsModifiedAt;
 
     @PrePersist
     protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = System.currentTimeMillis();
+        }
         if (this.id == null) {
-            this.id = java.util.UUID.randomUUID().toString();
+            this.id = Ids.next(this.createdAt);
         }
-        this.createdAt = Instant.now().toString();
+        // Not createdAt: an imported post may be older than a version already handed out for its id
+        this.modifiedAt = System.currentTimeMillis();
+        this.commentsModifiedAt = this.modifiedAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = Instant.now().toString();
+        this.updatedAt = System.currentTimeMillis();
+        this.modifiedAt = Math.max(this.updatedAt, this.modifiedAt == null ? 0 : this.modifiedAt + 1);
     }
 }
@@ -0,0 +1,26 @@
+package com.contoso.socialapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * A deleted post whose comments and likes have not all been purged yet. Written in the transaction that deletes
+ * the post row and removed by {@code PostPurger} once the last child row is gone.
+ */
+@Entity
+@Table(name = "post_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTombstone {
+
+    @Id
+    @Column(name = "post_id")
+    private String postId;
+
+    // Epoch milliseconds
+    @Column(name = "deleted_at", nullable = false)
+    private long deletedAt;
+}
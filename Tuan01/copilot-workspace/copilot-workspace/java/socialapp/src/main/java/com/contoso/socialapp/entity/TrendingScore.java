@@ -0,0 +1,23 @@
+package com.contoso.socialapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * A post's trending score as of the last snapshot ({@link TrendingSnapshot#getTakenAt()}), in decayed events.
+ */
+@Entity
+@Table(name = "trending_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingScore {
+    @Id
+    @Column(name = "post_id")
+    private String postId;
+
+    @Column(nullable = false)
+    private double score;
+}
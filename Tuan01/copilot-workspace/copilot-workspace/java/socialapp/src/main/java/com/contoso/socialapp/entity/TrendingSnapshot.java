@@ -0,0 +1,26 @@
+package com.contoso.socialapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * When the rows in {@code trending_scores} were written. A single row; likes and comments created since are
+ * replayed on startup.
+ */
+@Entity
+@Table(name = "trending_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingSnapshot {
+    public static final int ID = 1;
+
+    @Id
+    private int id;
+
+    // Epoch milliseconds
+    @Column(name = "taken_at", nullable = false)
+    private long takenAt;
+}
@@ -0,0 +1,12 @@
+package com.contoso.socialapp.id;
+
+/**
+ * Produces primary keys for posts and comments. Implementations must be thread-safe.
+ */
+public interface IdGenerator {
+
+    /**
+     * Returns a new unique id for a row created at {@code epochMillis}.
+     */
+    String nextId(long epochMillis);
+}
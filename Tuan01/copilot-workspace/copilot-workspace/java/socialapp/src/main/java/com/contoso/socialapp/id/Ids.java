@@ -0,0 +1,36 @@
+package com.contoso.socialapp.id;
+
+import java.util.UUID;
+
+/**
+ * Id generator used by the entities' {@code @PrePersist} callbacks, which Hibernate invokes outside of Spring.
+ * {@code IdGeneratorConfig} installs the configured generator at startup; until then ids come from a
+ * {@link SnowflakeIdGenerator} on node 0.
+ */
+public final class Ids {
+
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(0);
+
+    private Ids() {
+    }
+
+    public static String next(long epochMillis) {
+        return generator.nextId(epochMillis);
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    /**
+     * Creates a generator by its {@code socialapp.ids.generator} name: snowflake, uuid-v7 or uuid (random, version 4).
+     */
+    public static IdGenerator create(String type, int nodeId) {
+        return switch (type) {
+            case "snowflake" -> new SnowflakeIdGenerator(nodeId);
+            case "uuid-v7" -> new UuidV7IdGenerator();
+            case "uuid" -> epochMillis -> UUID.randomUUID().toString();
+            default -> throw new IllegalArgumentException("unknown id generator: " + type);
+        };
+    }
+}
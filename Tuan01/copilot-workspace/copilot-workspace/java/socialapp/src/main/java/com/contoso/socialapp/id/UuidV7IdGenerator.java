@@ -0,0 +1,19 @@
+package com.contoso.socialapp.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit millisecond timestamp followed by random bits. Time-ordered like
+ * {@link SnowflakeIdGenerator}, without node coordination, but kept in the 36-character text form.
+ */
+public final class UuidV7IdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificant = epochMillis << 16 | 0x7000L | random.nextLong() & 0x0FFFL;
+        long leastSignificant = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
@@ -1,25 +1,80 @@
 package com.contoso.socialapp.repository;
 
+import com.contoso.socialapp.dto.CommentResponse;
 import com.contoso.socialapp.entity.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, String> {
 
-    @Query("SELECT c FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt ASC")
-    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") String postId);
+    // Read endpoints select straight into the response: no entities to hydrate, register or snapshot
+    String COMMENT_RESPONSE_PROJECTION =
+            "SELECT new com.contoso.socialapp.dto.CommentResponse(c.id, c.postId, c.username, c.content, " +
+            "c.createdAt, c.updatedAt) ";
 
-    @Query("SELECT c FROM Comment c WHERE c.id = :commentId AND c.postId = :postId")
+    @Query(COMMENT_RESPONSE_PROJECTION + "FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findPageByPostId(@Param("postId") String postId, Pageable pageable);
+
+    // Seek past the last row of the previous page; the range on createdAt lets
+    // idx_comments_post_id_created_at_id start at the cursor
+    @Query(COMMENT_RESPONSE_PROJECTION + "FROM Comment c WHERE c.postId = :postId " +
+           "AND c.createdAt >= :createdAt AND (c.createdAt > :createdAt OR c.id > :id) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentResponse> findPageByPostIdAfter(@Param("postId") String postId,
+                                                @Param("createdAt") long createdAt,
+                                                @Param("id") String id,
+                                                Pageable pageable);
+
+    // A user's comments across all posts, newest first, served from idx_comments_username_created_at_id. Comments of
+    // deleted posts still awaiting PostPurger are skipped with a primary key lookup each
+    String LIVE_POST = "AND EXISTS (SELECT 1 FROM Post p WHERE p.id = c.postId) ";
+
+    @Query(COMMENT_RESPONSE_PROJECTION + "FROM Comment c WHERE c.username = :username " + LIVE_POST +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentResponse> findPageByUsername(@Param("username") String username, Pageable pageable);
+
+    @Query(COMMENT_RESPONSE_PROJECTION + "FROM Comment c WHERE c.username = :username " + LIVE_POST +
+           "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentResponse> findPageByUsernameAfter(@Param("username") String username,
+                                                  @Param("createdAt") long createdAt,
+                                                  @Param("id") String id,
+                                                  Pageable pageable);
+
+    // Export cursor in idx_comments_post_id_created_at_id order, so it can be merged with PostRepository.streamAllOrderById()
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PostRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Comment c ORDER BY c.postId ASC, c.createdAt ASC, c.id ASC")
+    Stream<Comment> streamAllOrderByPostId();
+
+    // Comments of a deleted post awaiting PostPurger are not found
+    String COMMENT_OF_LIVE_POST = "FROM Comment c WHERE c.id = :commentId AND c.postId = :postId " +
+            "AND EXISTS (SELECT 1 FROM Post p WHERE p.id = :postId)";
+
+    // For updates and deletes, which need the managed entity
+    @Query("SELECT c " + COMMENT_OF_LIVE_POST)
     Optional<Comment> findByIdAndPostId(@Param("commentId") String commentId, @Param("postId") String postId);
 
-    @Query("SELECT COUNT(c) FROM Comment c WHERE c.postId = :postId")
-    int countByPostId(@Param("postId") String postId);
+    @Query(COMMENT_RESPONSE_PROJECTION + COMMENT_OF_LIVE_POST)
+    Optional<CommentResponse> findResponseByIdAndPostId(@Param("commentId") String commentId,
+                                                        @Param("postId") String postId);
 
-    void deleteByPostId(String postId);
+    // A single statement; the derived delete would load and remove every comment one by one
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.postId = :postId")
+    int deleteByPostId(@Param("postId") String postId);
 }
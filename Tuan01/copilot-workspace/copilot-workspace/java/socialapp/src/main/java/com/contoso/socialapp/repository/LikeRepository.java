@@ -1,18 +1,72 @@
 package com.contoso.socialapp.repository;
 
+import com.contoso.socialapp.dto.LikedPostResponse;
 import com.contoso.socialapp.entity.Like;
 import com.contoso.socialapp.entity.LikeId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface LikeRepository extends JpaRepository<Like, LikeId> {
 
-    boolean existsByPostIdAndUsername(String postId, String username);
+    String LIKED_POST_PROJECTION =
+            "SELECT new com.contoso.socialapp.dto.LikedPostResponse(p.id, p.username, p.content, p.createdAt, " +
+            "p.updatedAt, p.likeCount, p.commentCount, l.createdAt) FROM Like l JOIN Post p ON p.id = l.postId ";
+
+    // Inserts the like if the post exists and the user has not liked it yet, and returns its createdAt only when
+    // it did. One statement: no constraint violation to roll the transaction back under contention. Not @Modifying,
+    // as RETURNING produces a result set
+    @Query(value = "INSERT INTO likes (post_id, username, created_at) " +
+                   "SELECT :postId, :username, :createdAt WHERE EXISTS (SELECT 1 FROM posts WHERE id = :postId) " +
+                   "ON CONFLICT (post_id, username) DO NOTHING RETURNING created_at",
+           nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("postId") String postId,
+                                  @Param("username") String username,
+                                  @Param("createdAt") long createdAt);
+
+    // Likes of a deleted post awaiting PostPurger are not found
+    @Query(value = "SELECT l.created_at FROM likes l JOIN posts p ON p.id = l.post_id " +
+                   "WHERE l.post_id = :postId AND l.username = :username", nativeQuery = true)
+    Optional<Long> findCreatedAt(@Param("postId") String postId, @Param("username") String username);
+
+    @Modifying
+    @Query(value = "DELETE FROM likes WHERE post_id = :postId AND username = :username", nativeQuery = true)
+    int deleteByPostIdAndUsername(@Param("postId") String postId, @Param("username") String username);
+
+    // A single statement; the derived delete would load and remove every like one by one
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.postId = :postId")
+    int deleteByPostId(@Param("postId") String postId);
 
-    int countByPostId(String postId);
+    // Posts a user liked, most recently liked first: idx_likes_username_created_at_post_id supplies the order and
+    // each post is one primary key lookup
+    @Query(LIKED_POST_PROJECTION + "WHERE l.username = :username ORDER BY l.createdAt DESC, l.postId DESC")
+    List<LikedPostResponse> findLikedPostsPage(@Param("username") String username, Pageable pageable);
 
-    void deleteByPostIdAndUsername(String postId, String username);
+    @Query(LIKED_POST_PROJECTION + "WHERE l.username = :username " +
+           "AND l.createdAt <= :createdAt AND (l.createdAt < :createdAt OR l.postId < :postId) " +
+           "ORDER BY l.createdAt DESC, l.postId DESC")
+    List<LikedPostResponse> findLikedPostsPageAfter(@Param("username") String username,
+                                                    @Param("createdAt") long createdAt,
+                                                    @Param("postId") String postId,
+                                                    Pageable pageable);
 
-    void deleteByPostId(String postId);
+    // Export cursor in primary key order, so it can be merged with PostRepository.streamAllOrderById()
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + PostRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Like l ORDER BY l.postId ASC, l.username ASC")
+    Stream<Like> streamAllOrderByPostId();
 }
@@ -1,15 +1,127 @@
 package com.contoso.socialapp.repository;
 
+import com.contoso.socialapp.dto.PostResponse;
 import com.contoso.socialapp.entity.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, String> {
 
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
-    List<Post> findAllOrderByCreatedAtDesc();
+    String POST_RESPONSE_PROJECTION =
+            "SELECT new com.contoso.socialapp.dto.PostResponse(p.id, p.username, p.content, p.createdAt, p.updatedAt, " +
+            "p.likeCount, p.commentCount) ";
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    String NOW_MILLIS = "CAST(unixepoch('subsec') * 1000 AS INTEGER)";
+
+    // SET clauses advancing the conditional GET versions (Post.modifiedAt, Post.commentsModifiedAt): the current
+    // time, or one past the previous version when the clock has not moved beyond it
+    String TOUCH_POST = "modified_at = max(coalesce(modified_at, 0) + 1, " + NOW_MILLIS + ")";
+    String TOUCH_COMMENTS = "comments_modified_at = max(coalesce(comments_modified_at, 0) + 1, " + NOW_MILLIS + ")";
+
+    // Feed projection: counts come from the denormalized counter columns, so each page is one statement
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findFeedPage(Pageable pageable);
+
+    // Seek past the last row of the previous page; the leading range on createdAt lets idx_posts_created_at_id
+    // start at the cursor instead of filtering from the top, so every page costs the same
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p " +
+           "WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findFeedPageAfter(@Param("createdAt") long createdAt, @Param("id") String id, Pageable pageable);
+
+    // A user's posts, newest first, served from idx_posts_username_created_at_id
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p WHERE p.username = :username ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findPageByUsername(@Param("username") String username, Pageable pageable);
+
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p WHERE p.username = :username " +
+           "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostResponse> findPageByUsernameAfter(@Param("username") String username,
+                                               @Param("createdAt") long createdAt,
+                                               @Param("id") String id,
+                                               Pageable pageable);
+
+    // Native: the version arithmetic uses SQLite's scalar max() and clock
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = like_count + :delta, " + TOUCH_POST + " WHERE id = :postId",
+           nativeQuery = true)
+    int adjustLikeCount(@Param("postId") String postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = comment_count + :delta, " + TOUCH_POST + ", " + TOUCH_COMMENTS +
+                   " WHERE id = :postId",
+           nativeQuery = true)
+    int adjustCommentCount(@Param("postId") String postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET " + TOUCH_COMMENTS + " WHERE id = :postId", nativeQuery = true)
+    int touchComments(@Param("postId") String postId);
+
+    // Hands the post's comments and likes to PostPurger; the post row itself is deleted in the same transaction
+    @Modifying
+    @Query(value = "INSERT OR IGNORE INTO post_tombstones (post_id, deleted_at) VALUES (:postId, :deletedAt)",
+           nativeQuery = true)
+    int insertTombstone(@Param("postId") String postId, @Param("deletedAt") long deletedAt);
+
+    // Version lookups for conditional GETs, one primary key read each. Rows from before the version columns fall
+    // back to the newest timestamp they carry
+    @Query(value = "SELECT coalesce(modified_at, updated_at, created_at) FROM posts WHERE id = :postId",
+           nativeQuery = true)
+    Optional<Long> findModifiedAt(@Param("postId") String postId);
+
+    @Query(value = "SELECT coalesce(p.comments_modified_at, " +
+                   "(SELECT max(coalesce(c.updated_at, c.created_at)) FROM comments c WHERE c.post_id = p.id), " +
+                   "p.created_at) FROM posts p WHERE p.id = :postId",
+           nativeQuery = true)
+    Optional<Long> findCommentsModifiedAt(@Param("postId") String postId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p WHERE p.id = :id")
+    Optional<PostResponse> findResponseById(@Param("id") String id);
+
+    @Query(POST_RESPONSE_PROJECTION + "FROM Post p WHERE p.id IN :ids")
+    List<PostResponse> findResponsesByIds(@Param("ids") Collection<String> ids);
+
+    // Forward-only cursor for the export; consume inside a read-only transaction and close the stream. Read-only
+    // entities keep no snapshot for dirty-checking, whatever transaction they are read in
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p ORDER BY p.id ASC")
+    Stream<Post> streamAllOrderById();
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :id ORDER BY p.id ASC")
+    List<String> findIdsAfter(@Param("id") String id, Pageable pageable);
+
+    // Recomputes counters for one batch and only touches rows that drifted; runs in its own transaction
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE posts SET " +
+           "like_count = (SELECT count(*) FROM likes l WHERE l.post_id = posts.id), " +
+           "comment_count = (SELECT count(*) FROM comments c WHERE c.post_id = posts.id), " +
+           TOUCH_POST + " " +
+           "WHERE id IN (:ids) AND (" +
+           "like_count <> (SELECT count(*) FROM likes l WHERE l.post_id = posts.id) OR " +
+           "comment_count <> (SELECT count(*) FROM comments c WHERE c.post_id = posts.id))",
+           nativeQuery = true)
+    int reconcileCounters(@Param("ids") List<String> ids);
 }
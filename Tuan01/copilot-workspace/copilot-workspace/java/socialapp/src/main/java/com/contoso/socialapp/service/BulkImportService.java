@@ -0,0 +1,294 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CacheConfig;
+import com.contoso.socialapp.dto.BulkImportRecord;
+import com.contoso.socialapp.dto.BulkImportResponse;
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams NDJSON posts, comments and likes into the database. The body is read line by line and written in
+ * chunks of {@code chunk-size} records, each chunk in its own transaction with Hibernate JDBC batching
+ * ({@code hibernate.jdbc.batch_size}); the persistence context is cleared after every chunk, so memory use
+ * does not grow with the payload.
+ * Invalid records are reported by line number and skipped. When a chunk fails on a database constraint it is
+ * rolled back and replayed one record per transaction, so only the offending records are rejected.
+ * Rows are persisted through the EntityManager: the records carry their own ids, and a repository save()
+ * would merge them, issuing a SELECT per row.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private static final String ADJUST_COUNTERS =
+            "UPDATE posts SET like_count = like_count + ?, comment_count = comment_count + ?, "
+                    + PostRepository.TOUCH_POST + ", " + PostRepository.TOUCH_COMMENTS + " WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader recordReader;
+
+    @Value("${socialapp.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${socialapp.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BulkImportService(PostRepository postRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordReader = objectMapper.readerFor(BulkImportRecord.class);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, allEntries = true)
+    })
+    public BulkImportResponse importNdjson(InputStream body) throws IOException {
+        long started = System.currentTimeMillis();
+        Progress progress = new Progress(maxReportedErrors);
+        List<Line> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            progress.received++;
+            try {
+                chunk.add(new Line(lineNumber, toEntity(recordReader.readValue(text))));
+            } catch (JsonProcessingException e) {
+                progress.fail(lineNumber, "malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                progress.fail(lineNumber, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                write(chunk, progress);
+                chunk.clear();
+            }
+        }
+        write(chunk, progress);
+        progress.errors.sort(Comparator.comparingLong(BulkImportResponse.RecordError::getLine));
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Bulk import received {} records, imported {}, rejected {} in {} ms",
+                progress.received, progress.imported, progress.failed, elapsed);
+        return BulkImportResponse.builder()
+                .received(progress.received)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .durationMs(elapsed)
+                .build();
+    }
+
+    private void write(List<Line> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            progress.record(transactionTemplate.execute(status -> persist(chunk)));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                progress.fail(chunk.get(0).number(), "rejected by the database: " + rootMessage(e));
+                return;
+            }
+            log.debug("Bulk import chunk failed, replaying its {} records one by one", chunk.size(), e);
+            for (Line line : chunk) {
+                write(List.of(line), progress);
+            }
+        } finally {
+            // With open-in-view the request's EntityManager outlives each chunk transaction
+            entityManager.clear();
+        }
+    }
+
+    // Runs inside the chunk transaction; the outcome only counts once it commits
+    private Outcome persist(List<Line> chunk) {
+        Outcome outcome = new Outcome();
+        Set<String> chunkPosts = new HashSet<>();
+        Set<String> referencedPosts = new HashSet<>();
+        for (Line line : chunk) {
+            if (line.entity() instanceof Post post && post.getId() != null) {
+                chunkPosts.add(post.getId());
+            } else if (line.entity() instanceof Comment comment) {
+                referencedPosts.add(comment.getPostId());
+            } else if (line.entity() instanceof Like like) {
+                referencedPosts.add(like.getPostId());
+            }
+        }
+        referencedPosts.removeAll(chunkPosts);
+        Set<String> knownPosts = new HashSet<>(chunkPosts);
+        if (!referencedPosts.isEmpty()) {
+            knownPosts.addAll(postRepository.findExistingIds(referencedPosts));
+        }
+
+        Map<String, int[]> counterDeltas = new HashMap<>();
+        for (Line line : chunk) {
+            String postId = line.entity() instanceof Comment comment ? comment.getPostId()
+                    : line.entity() instanceof Like like ? like.getPostId() : null;
+            if (postId != null && !knownPosts.contains(postId)) {
+                outcome.errors.add(new BulkImportResponse.RecordError(line.number(), "post " + postId + " not found"));
+                continue;
+            }
+            try {
+                entityManager.persist(line.entity());
+            } catch (EntityExistsException e) {
+                outcome.errors.add(new BulkImportResponse.RecordError(line.number(), "duplicate of an earlier record"));
+                continue;
+            }
+            outcome.imported++;
+            if (postId != null) {
+                counterDeltas.computeIfAbsent(postId, id -> new int[2])[line.entity() instanceof Like ? 0 : 1]++;
+            }
+        }
+
+        entityManager.flush();
+        if (!counterDeltas.isEmpty()) {
+            List<Object[]> adjustments = new ArrayList<>(counterDeltas.size());
+            counterDeltas.forEach((postId, delta) -> adjustments.add(new Object[]{delta[0], delta[1], postId}));
+            jdbcTemplate.batchUpdate(ADJUST_COUNTERS, adjustments);
+        }
+        return outcome;
+    }
+
+    private static Object toEntity(BulkImportRecord record) {
+        if (record.getType() == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        Long createdAt = parseCreatedAt(record.getCreatedAt());
+        return switch (record.getType()) {
+            case "post" -> {
+                require(record.getUsername(), "username");
+                require(record.getContent(), "content");
+                yield Post.builder()
+                        .id(blankToNull(record.getId()))
+                        .username(record.getUsername())
+                        .content(record.getContent())
+                        .createdAt(createdAt)
+                        .build();
+            }
+            case "comment" -> {
+                require(record.getPostId(), "postId");
+                require(record.getUsername(), "username");
+                require(record.getContent(), "content");
+                yield Comment.builder()
+                        .id(blankToNull(record.getId()))
+                        .postId(record.getPostId())
+                        .username(record.getUsername())
+                        .content(record.getContent())
+                        .createdAt(createdAt)
+                        .build();
+            }
+            case "like" -> {
+                require(record.getPostId(), "postId");
+                require(record.getUsername(), "username");
+                yield Like.builder()
+                        .postId(record.getPostId())
+                        .username(record.getUsername())
+                        .createdAt(createdAt)
+                        .build();
+            }
+            default -> throw new IllegalArgumentException("unknown type: " + record.getType());
+        };
+    }
+
+    private static Long parseCreatedAt(String createdAt) {
+        if (createdAt == null || createdAt.isBlank()) {
+            return null;
+        }
+        try {
+            return Timestamps.parse(createdAt);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("createdAt must be an ISO-8601 instant");
+        }
+    }
+
+    private static void require(String value, String field) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private record Line(long number, Object entity) {
+    }
+
+    private static final class Outcome {
+        private long imported;
+        private final List<BulkImportResponse.RecordError> errors = new ArrayList<>();
+    }
+
+    private static final class Progress {
+        private final int maxReportedErrors;
+        private final List<BulkImportResponse.RecordError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void record(Outcome outcome) {
+            imported += outcome.imported;
+            outcome.errors.forEach(error -> fail(error.getLine(), error.getMessage()));
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResponse.RecordError(line, message));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.contoso.socialapp.service;
 
+import com.contoso.socialapp.config.CacheConfig;
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.exception.ResourceNotFoundException;
 import com.contoso.socialapp.exception.BadRequestException;
@@ -7,11 +8,16 @@ import com.contoso.socialapp.entity.Comment;
 import com.contoso.socialapp.repository.CommentRepository;
 import com.contoso.socialapp.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,28 +26,83 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Only the first page at the default size is cached; that is what opening a post requests
     @Transactional(readOnly = true)
-    public List<CommentResponse> getCommentsByPostId(String postId) {
+    @Cacheable(cacheNames = CacheConfig.COMMENTS_CACHE, key = "#postId",
+            condition = "#cursor == null && #limit == T(com.contoso.socialapp.service.PostService).DEFAULT_PAGE_SIZE")
+    public CursorPage<CommentResponse> getCommentsByPostId(String postId, String cursor, int limit) {
+        if (limit < 1 || limit > PostService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + PostService.MAX_PAGE_SIZE);
+        }
+
         // Check if post exists
         if (!postRepository.existsById(postId)) {
             throw new ResourceNotFoundException("Post not found");
         }
 
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId)
-                .stream()
-                .map(this::mapToCommentResponse)
-                .collect(Collectors.toList());
+        // Fetch one extra row to learn whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<CommentResponse> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findPageByPostId(postId, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            comments = commentRepository.findPageByPostIdAfter(postId, after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        if (comments.size() <= limit) {
+            return new CursorPage<>(comments, null);
+        }
+        List<CommentResponse> page = comments.subList(0, limit);
+        CommentResponse last = page.get(limit - 1);
+        return new CursorPage<>(page, new PageCursor(Timestamps.parse(last.getCreatedAt()), last.getId()).encode());
+    }
+
+    /**
+     * Version of every comment page of a post, for conditional GETs; read without loading any comment.
+     */
+    @Transactional(readOnly = true)
+    public long getCommentsVersion(String postId) {
+        return postRepository.findCommentsModifiedAt(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+    }
+
+    // Newest first, across all posts
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getCommentsByUser(String username, String cursor, int limit) {
+        if (limit < 1 || limit > PostService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + PostService.MAX_PAGE_SIZE);
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<CommentResponse> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findPageByUsername(username, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            comments = commentRepository.findPageByUsernameAfter(username, after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        if (comments.size() <= limit) {
+            return new CursorPage<>(comments, null);
+        }
+        List<CommentResponse> page = comments.subList(0, limit);
+        CommentResponse last = page.get(limit - 1);
+        return new CursorPage<>(page, new PageCursor(Timestamps.parse(last.getCreatedAt()), last.getId()).encode());
     }
 
     @Transactional(readOnly = true)
     public CommentResponse getCommentById(String postId, String commentId) {
-        Comment comment = commentRepository.findByIdAndPostId(commentId, postId)
+        return commentRepository.findResponseByIdAndPostId(commentId, postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-
-        return mapToCommentResponse(comment);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId"),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, key = "#postId")
+    })
     public CommentResponse createComment(String postId, CommentCreateRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty() ||
             request.getContent() == null || request.getContent().trim().isEmpty()) {
@@ -60,9 +121,17 @@ public class CommentService {
                 .build();
 
         comment = commentRepository.save(comment);
-        return mapToCommentResponse(comment);
+        postRepository.adjustCommentCount(postId, 1);
+        CommentResponse response = mapToCommentResponse(comment);
+        eventPublisher.publishEvent(ActivityEvent.builder()
+                .type(ActivityEvent.COMMENT_CREATED)
+                .postId(postId)
+                .data(response)
+                .build());
+        return response;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, key = "#postId")
     public CommentResponse updateComment(String postId, String commentId, CommentUpdateRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty() ||
             request.getContent() == null || request.getContent().trim().isEmpty()) {
@@ -78,15 +147,21 @@ public class CommentService {
 
         comment.setContent(request.getContent());
         comment = commentRepository.save(comment);
+        postRepository.touchComments(postId);
 
         return mapToCommentResponse(comment);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId"),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, key = "#postId")
+    })
     public void deleteComment(String postId, String commentId) {
         Comment comment = commentRepository.findByIdAndPostId(commentId, postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
 
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(postId, -1);
     }
 
     private CommentResponse mapToCommentResponse(Comment comment) {
@@ -95,8 +170,8 @@ public class CommentService {
                 .postId(comment.getPostId())
                 .username(comment.getUsername())
                 .content(comment.getContent())
-                .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt())
+                .createdAt(Timestamps.format(comment.getCreatedAt()))
+                .updatedAt(Timestamps.format(comment.getUpdatedAt()))
                 .build();
     }
 }
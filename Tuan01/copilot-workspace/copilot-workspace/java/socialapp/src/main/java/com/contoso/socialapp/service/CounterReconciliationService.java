@@ -0,0 +1,56 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CacheConfig;
+import com.contoso.socialapp.dto.CounterReconciliationResponse;
+import com.contoso.socialapp.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Recomputes the denormalized like/comment counters on posts from the source tables.
+ * Posts are walked in id order and each batch is corrected in its own short transaction,
+ * so the job never holds the SQLite write lock for long.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterReconciliationService {
+
+    private final PostRepository postRepository;
+
+    @Value("${socialapp.counters.reconcile-batch-size:500}")
+    private int batchSize;
+
+    // Corrected rows are not reported individually, so cached posts are dropped wholesale
+    @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, allEntries = true)
+    public CounterReconciliationResponse reconcile() {
+        long started = System.currentTimeMillis();
+        int scanned = 0;
+        int corrected = 0;
+        String lastId = "";
+
+        while (true) {
+            List<String> ids = postRepository.findIdsAfter(lastId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            corrected += postRepository.reconcileCounters(ids);
+            scanned += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Counter reconciliation scanned {} posts, corrected {} in {} ms", scanned, corrected, elapsed);
+        return CounterReconciliationResponse.builder()
+                .postsScanned(scanned)
+                .postsCorrected(corrected)
+                .durationMs(elapsed)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every post, with its comments and likes nested, as one NDJSON line per post.
+ * Posts, comments and likes are read through three forward-only cursors sorted by post id and merged, so the export
+ * is three table scans rather than two queries per post. Rows are written as they are read and the persistence
+ * context is cleared every {@code EXPORT_FETCH_SIZE} rows, so memory use does not grow with the dataset.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(PostRepository postRepository, CommentRepository commentRepository,
+                         LikeRepository likeRepository, ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeRepository = likeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Leaves the stream open; callers that wrap it (e.g. in gzip) finish it themselves
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long posts = 0;
+        long rows = 0;
+
+        try (Stream<Post> postStream = postRepository.streamAllOrderById();
+             Stream<Comment> commentStream = commentRepository.streamAllOrderByPostId();
+             Stream<Like> likeStream = likeRepository.streamAllOrderByPostId();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            Cursor<Comment> comments = new Cursor<>(commentStream.iterator());
+            Cursor<Like> likes = new Cursor<>(likeStream.iterator());
+
+            for (Iterator<Post> it = postStream.iterator(); it.hasNext(); ) {
+                Post post = it.next();
+                String postId = post.getId();
+                json.writeStartObject();
+                json.writeStringField("id", postId);
+                json.writeStringField("username", post.getUsername());
+                json.writeStringField("content", post.getContent());
+                json.writeStringField("createdAt", Timestamps.format(post.getCreatedAt()));
+                json.writeStringField("updatedAt", Timestamps.format(post.getUpdatedAt()));
+                json.writeNumberField("likesCount", post.getLikeCount());
+                json.writeNumberField("commentsCount", post.getCommentCount());
+
+                // Rows of posts that no longer exist sort before the current post and are dropped
+                while (comments.hasNext() && precedes(comments.peek().getPostId(), postId)) {
+                    comments.next();
+                }
+                json.writeArrayFieldStart("comments");
+                while (comments.hasNext() && comments.peek().getPostId().equals(postId)) {
+                    Comment comment = comments.next();
+                    json.writeStartObject();
+                    json.writeStringField("id", comment.getId());
+                    json.writeStringField("username", comment.getUsername());
+                    json.writeStringField("content", comment.getContent());
+                    json.writeStringField("createdAt", Timestamps.format(comment.getCreatedAt()));
+                    json.writeStringField("updatedAt", Timestamps.format(comment.getUpdatedAt()));
+                    json.writeEndObject();
+                    rows++;
+                }
+                json.writeEndArray();
+
+                while (likes.hasNext() && precedes(likes.peek().getPostId(), postId)) {
+                    likes.next();
+                }
+                json.writeArrayFieldStart("likes");
+                while (likes.hasNext() && likes.peek().getPostId().equals(postId)) {
+                    Like like = likes.next();
+                    json.writeStartObject();
+                    json.writeStringField("username", like.getUsername());
+                    json.writeStringField("createdAt", Timestamps.format(like.getCreatedAt()));
+                    json.writeEndObject();
+                    rows++;
+                }
+                json.writeEndArray();
+
+                json.writeEndObject();
+                json.writeRaw('\n');
+                posts++;
+                rows++;
+
+                if (rows >= PostRepository.EXPORT_FETCH_SIZE) {
+                    // The peeked rows are already copied out of the cursors, so detaching them is safe
+                    entityManager.clear();
+                    rows = 0;
+                }
+            }
+        }
+
+        log.info("Export wrote {} posts in {} ms", posts, System.currentTimeMillis() - started);
+    }
+
+    // SQLite compares text as UTF-8 bytes, which orders like code points; String.compareTo orders UTF-16 units
+    private static boolean precedes(String rowPostId, String postId) {
+        int length = Math.min(rowPostId.length(), postId.length());
+        int i = 0;
+        while (i < length) {
+            int a = rowPostId.codePointAt(i);
+            int b = postId.codePointAt(i);
+            if (a != b) {
+                return a < b;
+            }
+            i += Character.charCount(a);
+        }
+        return rowPostId.length() < postId.length();
+    }
+
+    private static final class Cursor<T> {
+        private final Iterator<T> iterator;
+        private T next;
+
+        private Cursor(Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.next = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        private boolean hasNext() {
+            return next != null;
+        }
+
+        private T peek() {
+            return next;
+        }
+
+        private T next() {
+            T current = next;
+            next = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+    }
+}
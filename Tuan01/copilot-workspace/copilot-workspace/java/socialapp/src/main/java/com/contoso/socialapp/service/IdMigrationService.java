@@ -0,0 +1,123 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CacheConfig;
+import com.contoso.socialapp.dto.IdMigrationResponse;
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.id.IdGenerator;
+import com.contoso.socialapp.id.Ids;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-keys posts and comments that still have random (version 4) UUID ids with the configured time-ordered
+ * generator, updating comments.post_id, likes.post_id and trending_scores.post_id along with each post, then
+ * reloads the trending scores under the new ids. Rows are processed in creation order and each new id encodes the
+ * row's own created_at, so id order follows creation order. Every batch commits on its own; the job can be
+ * interrupted and re-run, and a re-run skips the ids its previous run already issued in the same millisecond.
+ * Old ids stop resolving afterwards.
+ */
+@Slf4j
+@Service
+public class IdMigrationService {
+
+    // Random UUIDs are 36 characters with the version digit at position 15
+    private static final String LEGACY_ID = "length(id) = 36 AND substr(id, 15, 1) = '4'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrendingService trendingService;
+    private final String generatorType;
+    private final int nodeId;
+    // Ids issued live are stamped at or after startup, so backfilled ids (stamped before it) cannot collide with them
+    private final long startedAt = System.currentTimeMillis();
+
+    @Value("${socialapp.ids.migration-batch-size:500}")
+    private int batchSize;
+
+    public IdMigrationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              TrendingService trendingService,
+                              @Value("${socialapp.ids.generator:snowflake}") String generatorType,
+                              @Value("${socialapp.ids.node-id:0}") int nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trendingService = trendingService;
+        this.generatorType = generatorType;
+        this.nodeId = nodeId;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, allEntries = true)
+    })
+    public IdMigrationResponse migrate() {
+        if ("uuid".equals(generatorType)) {
+            throw new BadRequestException("socialapp.ids.generator is uuid; there is no time-ordered format to migrate to");
+        }
+        long started = System.currentTimeMillis();
+        IdGenerator generator = Ids.create(generatorType, nodeId);
+
+        int posts = rekey("posts", generator, List.of(
+                "UPDATE comments SET post_id = ? WHERE post_id = ?",
+                "UPDATE likes SET post_id = ? WHERE post_id = ?",
+                "UPDATE trending_scores SET post_id = ? WHERE post_id = ?",
+                "UPDATE posts SET id = ? WHERE id = ?"));
+        if (posts > 0) {
+            // The scores in memory are keyed by the old ids; the snapshot and the replayed rows now carry the new ones
+            trendingService.reload();
+        }
+        int comments = rekey("comments", generator, List.of(
+                "UPDATE comments SET id = ? WHERE id = ?"));
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Id migration re-keyed {} posts and {} comments in {} ms", posts, comments, elapsed);
+        return IdMigrationResponse.builder()
+                .postsMigrated(posts)
+                .commentsMigrated(comments)
+                .durationMs(elapsed)
+                .build();
+    }
+
+    private int rekey(String table, IdGenerator generator, List<String> updates) {
+        String select = "SELECT id, created_at FROM " + table + " WHERE " + LEGACY_ID + " AND created_at < ? "
+                + "AND created_at >= ? AND (created_at > ? OR id > ?) ORDER BY created_at, id LIMIT ?";
+        long lastCreatedAt = Long.MIN_VALUE;
+        String lastId = "";
+        int migrated = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(select,
+                    (rs, rowNum) -> new Object[]{rs.getString("id"), rs.getLong("created_at")},
+                    startedAt, lastCreatedAt, lastCreatedAt, lastId, batchSize);
+            if (rows.isEmpty()) {
+                return migrated;
+            }
+            List<Object[]> renames = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                renames.add(new Object[]{unusedId(table, generator, (Long) row[1]), row[0]});
+            }
+            transactionTemplate.executeWithoutResult(status -> updates.forEach(sql -> jdbcTemplate.batchUpdate(sql, renames)));
+            migrated += rows.size();
+            Object[] last = rows.get(rows.size() - 1);
+            lastId = (String) last[0];
+            lastCreatedAt = (Long) last[1];
+        }
+    }
+
+    // A fresh generator restarts each millisecond's sequence, so after an interrupted run it reissues the ids the
+    // rows already re-keyed in that millisecond got
+    private String unusedId(String table, IdGenerator generator, long createdAt) {
+        String id;
+        do {
+            id = generator.nextId(createdAt);
+        } while (jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE id = ?", Integer.class, id) > 0);
+        return id;
+    }
+}
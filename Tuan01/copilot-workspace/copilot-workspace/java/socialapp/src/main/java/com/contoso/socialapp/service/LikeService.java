@@ -1,75 +1,133 @@
 package com.contoso.socialapp.service;
 
+import com.contoso.socialapp.config.CacheConfig;
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.exception.ResourceNotFoundException;
 import com.contoso.socialapp.exception.BadRequestException;
-import com.contoso.socialapp.entity.Like;
-import com.contoso.socialapp.entity.Post;
 import com.contoso.socialapp.repository.LikeRepository;
 import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class LikeService {
 
+    // Likes that turned out to exist already, tagged by where the duplicate was caught
+    public static final String DUPLICATE_LIKES_COUNTER = "socialapp.likes.duplicates";
+
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Most recently liked first; the cursor is the (like time, post id) of the last item
+    @Transactional(readOnly = true)
+    public CursorPage<LikedPostResponse> getLikedPosts(String username, String cursor, int limit) {
+        if (limit < 1 || limit > PostService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + PostService.MAX_PAGE_SIZE);
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<LikedPostResponse> liked;
+        if (cursor == null || cursor.isBlank()) {
+            liked = likeRepository.findLikedPostsPage(username, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            liked = likeRepository.findLikedPostsPageAfter(username, after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        if (liked.size() <= limit) {
+            return new CursorPage<>(liked, null);
+        }
+        List<LikedPostResponse> page = liked.subList(0, limit);
+        LikedPostResponse last = page.get(limit - 1);
+        return new CursorPage<>(page,
+                new PageCursor(Timestamps.parse(last.getLikedAt()), last.getPost().getId()).encode());
+    }
 
+    @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId")
     public LikeResponse likePost(String postId, LikeRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
             throw new BadRequestException("username is required");
         }
 
-        // Verify post exists
-        if (!postRepository.existsById(postId)) {
-            throw new ResourceNotFoundException("Post not found");
+        if (likeWriteBuffer.isEnabled()) {
+            // Persisted asynchronously. The flush keeps an existing like as-is, so the response carries its time, as
+            // below; it is queued anyway to override a pending unlike. The live feed hears about new likes from the
+            // flush that inserts them
+            Optional<Long> existing = likeRepository.findCreatedAt(postId, request.getUsername());
+            if (existing.isEmpty() && !postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post not found");
+            }
+            long createdAt = existing.orElseGet(System::currentTimeMillis);
+            if (likeWriteBuffer.like(postId, request.getUsername(), createdAt)) {
+                return LikeResponse.builder()
+                        .postId(postId)
+                        .username(request.getUsername())
+                        .createdAt(Timestamps.format(createdAt))
+                        .build();
+            }
+            // Shutting down: written synchronously
         }
 
-        // Check if already liked
-        if (likeRepository.existsByPostIdAndUsername(postId, request.getUsername())) {
-            // Return existing like representation as per FastAPI behavior
+        Optional<Long> inserted = likeRepository.insertIfAbsent(postId, request.getUsername(),
+                System.currentTimeMillis());
+        if (inserted.isEmpty()) {
+            // Already liked, or no such post
+            long createdAt = likeRepository.findCreatedAt(postId, request.getUsername())
+                    .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+            meterRegistry.counter(DUPLICATE_LIKES_COUNTER, "path", "exists").increment();
             return LikeResponse.builder()
                     .postId(postId)
                     .username(request.getUsername())
-                    .createdAt(Instant.now().toString())
+                    .createdAt(Timestamps.format(createdAt))
                     .build();
         }
 
-        Like like = Like.builder()
+        postRepository.adjustLikeCount(postId, 1);
+        LikeResponse response = LikeResponse.builder()
                 .postId(postId)
                 .username(request.getUsername())
+                .createdAt(Timestamps.format(inserted.get()))
                 .build();
-
-        try {
-            like = likeRepository.save(like);
-            return LikeResponse.builder()
-                    .postId(postId)
-                    .username(request.getUsername())
-                    .createdAt(like.getCreatedAt())
-                    .build();
-        } catch (DataIntegrityViolationException e) {
-            // Handle race condition - already liked
-            return LikeResponse.builder()
-                    .postId(postId)
-                    .username(request.getUsername())
-                    .createdAt(Instant.now().toString())
-                    .build();
-        }
+        eventPublisher.publishEvent(ActivityEvent.builder()
+                .type(ActivityEvent.LIKE_CREATED)
+                .postId(postId)
+                .data(response)
+                .build());
+        return response;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId")
     public void unlikePost(String postId, LikeRequest request) {
-        if (!postRepository.existsById(postId)) {
-            throw new ResourceNotFoundException("Post not found");
+        if (likeWriteBuffer.isEnabled()) {
+            if (!postRepository.existsById(postId)) {
+                throw new ResourceNotFoundException("Post not found");
+            }
+            if (likeWriteBuffer.unlike(postId, request.getUsername())) {
+                return;
+            }
         }
 
         // Delete like if exists (FastAPI doesn't check if like exists before deleting)
-        likeRepository.deleteByPostIdAndUsername(postId, request.getUsername());
+        // A removed like whose post is gone belonged to a deleted post awaiting PostPurger
+        boolean found = likeRepository.deleteByPostIdAndUsername(postId, request.getUsername()) > 0
+                ? postRepository.adjustLikeCount(postId, -1) > 0
+                : postRepository.existsById(postId);
+        if (!found) {
+            throw new ResourceNotFoundException("Post not found");
+        }
     }
 }
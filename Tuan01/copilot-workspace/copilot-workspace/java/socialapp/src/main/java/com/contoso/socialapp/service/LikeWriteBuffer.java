@@ -0,0 +1,264 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CacheConfig;
+import com.contoso.socialapp.dto.ActivityEvent;
+import com.contoso.socialapp.dto.LikeResponse;
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.entity.LikeId;
+import com.contoso.socialapp.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind path for likes. Like/unlike requests are recorded per (postId, username);
+ * a later operation on the same pair replaces an earlier one, so bursts collapse to their net effect.
+ * Pending operations are written with JDBC batches in a single transaction whenever the buffer
+ * reaches {@code batch-size} entries or every {@code flush-interval-ms}, and once more on shutdown.
+ * All flushes run on one thread, so operations on the same pair are applied in the order accepted. A flush that
+ * fails puts its operations back, except where a newer one for the same pair has arrived, for the next flush.
+ * Once shutdown has begun operations are refused, as the final flush may already have run; callers then write
+ * synchronously.
+ */
+@Slf4j
+@Component
+public class LikeWriteBuffer {
+
+    private static final String INSERT_LIKE =
+            "INSERT OR IGNORE INTO likes (post_id, username, created_at) " +
+            "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM posts WHERE id = ?)";
+    private static final String DELETE_LIKE = "DELETE FROM likes WHERE post_id = ? AND username = ?";
+    private static final String ADJUST_LIKE_COUNT =
+            "UPDATE posts SET like_count = like_count + ?, " + PostRepository.TOUCH_POST + " WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache postCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<LikeId, PendingLike> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Enqueues hold the read lock, so none is still in progress once stop() has set stopped
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+    private boolean stopped;
+
+    @Value("${socialapp.likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${socialapp.likes.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${socialapp.likes.write-behind.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    private ScheduledExecutorService flusher;
+
+    public LikeWriteBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           CacheManager cacheManager, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postCache = cacheManager.getCache(CacheConfig.POSTS_CACHE);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Like write-behind enabled (batch size {}, flush interval {} ms)", batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        stopLock.writeLock().lock();
+        try {
+            stopped = true;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        flusher.shutdown();
+        if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+            // A flush still running must not overlap with another one
+            log.warn("Like write-behind flush still running at shutdown; {} pending operations are lost",
+                    pending.size());
+            return;
+        }
+        // Drain whatever arrived after the last scheduled run
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a like; false if the buffer is shutting down and the caller must write it itself.
+     */
+    public boolean like(String postId, String username, long createdAt) {
+        return enqueue(new PendingLike(postId, username, true, createdAt));
+    }
+
+    /**
+     * Queues an unlike; false if the buffer is shutting down and the caller must write it itself.
+     */
+    public boolean unlike(String postId, String username) {
+        return enqueue(new PendingLike(postId, username, false, 0));
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private boolean enqueue(PendingLike operation) {
+        stopLock.readLock().lock();
+        try {
+            if (stopped) {
+                return false;
+            }
+            pending.put(new LikeId(operation.postId(), operation.username()), operation);
+            if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+                flusher.execute(this::flushQuietly);
+            }
+            return true;
+        } finally {
+            stopLock.readLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Like write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * Writes all currently pending operations in one transaction. Must only run on the flusher thread
+     * (or after it has stopped), which keeps per-pair ordering intact.
+     */
+    void flush() {
+        flushRequested.set(false);
+        List<PendingLike> likes = new ArrayList<>();
+        List<PendingLike> unlikes = new ArrayList<>();
+        for (LikeId key : pending.keySet()) {
+            PendingLike operation = pending.remove(key);
+            if (operation != null) {
+                (operation.liked() ? likes : unlikes).add(operation);
+            }
+        }
+        if (likes.isEmpty() && unlikes.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> deltas = new HashMap<>();
+        try {
+            write(likes, unlikes, deltas);
+        } catch (RuntimeException e) {
+            requeue(likes);
+            requeue(unlikes);
+            throw e;
+        }
+        // Counts changed only for these posts; evict after commit so readers cannot re-cache old values
+        if (postCache != null) {
+            deltas.keySet().forEach(postCache::evict);
+        }
+        log.debug("Flushed {} likes and {} unlikes", likes.size(), unlikes.size());
+    }
+
+    private void write(List<PendingLike> likes, List<PendingLike> unlikes, Map<String, Integer> deltas) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!likes.isEmpty()) {
+                int[] inserted = jdbcTemplate.batchUpdate(INSERT_LIKE, likes, likes.size(), (ps, like) -> {
+                    ps.setString(1, like.postId());
+                    ps.setString(2, like.username());
+                    ps.setLong(3, like.createdAt());
+                    ps.setString(4, like.postId());
+                })[0];
+                accumulate(deltas, likes, inserted, 1);
+                publishInserted(likes, inserted);
+            }
+            if (!unlikes.isEmpty()) {
+                int[] deleted = jdbcTemplate.batchUpdate(DELETE_LIKE, unlikes, unlikes.size(), (ps, unlike) -> {
+                    ps.setString(1, unlike.postId());
+                    ps.setString(2, unlike.username());
+                })[0];
+                accumulate(deltas, unlikes, deleted, -1);
+            }
+            List<Object[]> adjustments = new ArrayList<>();
+            deltas.forEach((postId, delta) -> {
+                if (delta != 0) {
+                    adjustments.add(new Object[]{delta, postId});
+                }
+            });
+            if (!adjustments.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADJUST_LIKE_COUNT, adjustments);
+            }
+        });
+    }
+
+    // Rolled back, so nothing of it was written; an operation accepted since then supersedes the one put back
+    private void requeue(List<PendingLike> operations) {
+        for (PendingLike operation : operations) {
+            pending.putIfAbsent(new LikeId(operation.postId(), operation.username()), operation);
+        }
+    }
+
+    // Delivered to the live feed once the flush commits; ignored likes (duplicates, deleted posts) are not announced
+    private void publishInserted(List<PendingLike> likes, int[] rowCounts) {
+        for (int i = 0; i < likes.size(); i++) {
+            if (rowCounts[i] > 0) {
+                PendingLike like = likes.get(i);
+                eventPublisher.publishEvent(ActivityEvent.builder()
+                        .type(ActivityEvent.LIKE_CREATED)
+                        .postId(like.postId())
+                        .data(LikeResponse.builder()
+                                .postId(like.postId())
+                                .username(like.username())
+                                .createdAt(Timestamps.format(like.createdAt()))
+                                .build())
+                        .build());
+            }
+        }
+    }
+
+    private static void accumulate(Map<String, Integer> deltas, List<PendingLike> operations, int[] rowCounts, int sign) {
+        for (int i = 0; i < operations.size(); i++) {
+            if (rowCounts[i] > 0) {
+                deltas.merge(operations.get(i).postId(), sign, Integer::sum);
+            }
+        }
+    }
+
+    private record PendingLike(String postId, String username, boolean liked, long createdAt) {
+    }
+}
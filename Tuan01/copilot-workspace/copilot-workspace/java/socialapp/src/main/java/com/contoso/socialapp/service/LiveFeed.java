@@ -0,0 +1,200 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.ActivityEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed {@link ActivityEvent}s out to Server-Sent Events subscribers.
+ * Services publish events through the application event publisher; they reach this listener only after their
+ * transaction commits, so subscribers never see writes that were rolled back. Each event is serialized once and
+ * offered to every subscriber's bounded queue, which a virtual thread per subscriber drains into its connection.
+ * A subscriber whose queue is full is sent an {@code overflow} event and disconnected, so one slow client never
+ * holds up the committing request or the others; clients reload the feed once and reconnect.
+ */
+@Slf4j
+@Component
+public class LiveFeed {
+
+    public static final String SUBSCRIBERS_GAUGE = "socialapp.live.subscribers";
+    public static final String OVERFLOWS_COUNTER = "socialapp.live.overflows";
+
+    private static final String OVERFLOW_EVENT = "overflow";
+
+    private final ObjectMapper objectMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadFactory senders = Thread.ofVirtual().name("live-feed-", 0).factory();
+    private final Counter overflows;
+
+    @Value("${socialapp.live.subscriber-buffer:256}")
+    private int bufferSize;
+
+    @Value("${socialapp.live.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    public LiveFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.overflows = meterRegistry.counter(OVERFLOWS_COUNTER);
+        meterRegistry.gaugeCollectionSize(SUBSCRIBERS_GAUGE, Tags.empty(), subscribers);
+    }
+
+    /**
+     * Opens a stream of activity, optionally limited to one post. The connection stays open until the client goes
+     * away, falls too far behind, or the application shuts down.
+     */
+    public SseEmitter subscribe(String postId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, postId, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.sender.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.getData());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event for post {}", event.getType(), event.getPostId(), e);
+            return;
+        }
+        // Rendered once as a complete SSE frame; every subscriber writes the same bytes
+        String frame = "event:" + event.getType() + "\ndata:" + json + "\n\n";
+        Message message = new Message(event.getPostId(), frame.getBytes(StandardCharsets.UTF_8));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Runs before the web server stops, while the connections can still be completed cleanly
+    @EventListener(ContextClosedEvent.class)
+    void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private record Message(String postId, byte[] frame) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String postId;
+        private final BlockingQueue<Message> queue;
+        private final Thread sender;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String postId, BlockingQueue<Message> queue) {
+            this.emitter = emitter;
+            this.postId = postId;
+            this.queue = queue;
+            this.sender = senders.newThread(this::drain);
+        }
+
+        private void offer(Message message) {
+            if (postId != null && !postId.equals(message.postId())) {
+                return;
+            }
+            if (!queue.offer(message) && !overflowed) {
+                overflowed = true;
+                overflows.increment();
+                subscribers.remove(this);
+                sender.interrupt();
+            }
+        }
+
+        // Runs on this subscriber's virtual thread; the only thread that writes to the emitter
+        private void drain() {
+            try {
+                // Commits the response headers, so clients see the stream open before the first event
+                emitter.send(SseEmitter.event().comment("subscribed"));
+                List<Message> batch = new ArrayList<>();
+                while (!closed && !overflowed) {
+                    Message message = queue.poll(heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+                    if (message == null) {
+                        // Keeps proxies from idling the connection out and detects clients that went away
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                        continue;
+                    }
+                    // Whatever queued up meanwhile goes out in the same write and flush
+                    batch.add(message);
+                    queue.drainTo(batch);
+                    emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(concat(batch), MediaType.TEXT_EVENT_STREAM)));
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Overflowed or closed; handled below
+            } catch (IOException | IllegalStateException e) {
+                // The client disconnected
+                close();
+                return;
+            }
+            if (overflowed) {
+                try {
+                    emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data("{}"));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    // The client disconnected
+                }
+            }
+            close();
+        }
+
+        private static byte[] concat(List<Message> batch) {
+            if (batch.size() == 1) {
+                return batch.get(0).frame();
+            }
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            batch.forEach(message -> frames.writeBytes(message.frame()));
+            return frames.toByteArray();
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            if (sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.contoso.socialapp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the comments and likes of posts deleted with more than {@code socialapp.posts.purge.async-threshold} of
+ * them. Such a post's row is deleted right away together with a {@code post_tombstones} entry; its children are
+ * then removed here, at most {@code batch-size} rows per statement, each statement its own transaction, so neither
+ * the delete request nor any single hold of the write lock grows with the post's engagement. Until then the
+ * leftover rows are orphans that the read paths skip. Tombstones survive restarts and are resumed on startup.
+ */
+@Slf4j
+@Component
+public class PostPurger implements SmartInitializingSingleton {
+
+    private static final String SELECT_TOMBSTONES = "SELECT post_id FROM post_tombstones ORDER BY deleted_at";
+    private static final String DELETE_COMMENTS =
+            "DELETE FROM comments WHERE rowid IN (SELECT rowid FROM comments WHERE post_id = ? LIMIT ?)";
+    private static final String DELETE_LIKES =
+            "DELETE FROM likes WHERE rowid IN (SELECT rowid FROM likes WHERE post_id = ? LIMIT ?)";
+    private static final String DELETE_TOMBSTONE = "DELETE FROM post_tombstones WHERE post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${socialapp.posts.purge.async-threshold:1000}")
+    private int asyncThreshold;
+
+    @Value("${socialapp.posts.purge.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService purger;
+
+    public PostPurger(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs once the schema exists; picks up tombstones left by a previous run
+    @Override
+    public void afterSingletonsInstantiated() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.execute(this::purgeQuietly);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (purger != null) {
+            // Unfinished tombstones are resumed on the next start
+            purger.shutdownNow();
+            purger.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Whether a post with this many comments and likes is deleted through a tombstone instead of in the request.
+     */
+    public boolean isDeferred(long children) {
+        return children > asyncThreshold;
+    }
+
+    /**
+     * Starts purging once the current transaction, which wrote a tombstone, commits.
+     */
+    public void purgeAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            purger.execute(this::purgeQuietly);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                purger.execute(PostPurger.this::purgeQuietly);
+            }
+        });
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.error("Post purge failed; remaining tombstones are retried after the next delete or restart", e);
+        }
+    }
+
+    /**
+     * Purges every tombstoned post. Must only run on the purge thread (or before it has started).
+     */
+    void purge() {
+        List<String> postIds = jdbcTemplate.queryForList(SELECT_TOMBSTONES, String.class);
+        for (String postId : postIds) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            // An interrupted purge keeps the tombstone, so the rest is resumed on the next start
+            if (deleteInBatches(DELETE_COMMENTS, postId) && deleteInBatches(DELETE_LIKES, postId)) {
+                jdbcTemplate.update(DELETE_TOMBSTONE, postId);
+                log.debug("Purged the comments and likes of deleted post {}", postId);
+            }
+        }
+    }
+
+    // Whether every row is gone, which a batch short of batchSize proves; false when interrupted before that
+    private boolean deleteInBatches(String sql, String postId) {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (jdbcTemplate.update(sql, postId, batchSize) < batchSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
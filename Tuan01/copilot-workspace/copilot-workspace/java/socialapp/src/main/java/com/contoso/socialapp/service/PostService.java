@@ -1,5 +1,6 @@
 package com.contoso.socialapp.service;
 
+import com.contoso.socialapp.config.CacheConfig;
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.exception.ResourceNotFoundException;
 import com.contoso.socialapp.exception.BadRequestException;
@@ -8,11 +9,17 @@ import com.contoso.socialapp.repository.PostRepository;
 import com.contoso.socialapp.repository.CommentRepository;
 import com.contoso.socialapp.repository.LikeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,20 +29,73 @@ public class PostService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
+    private final PostPurger postPurger;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
     @Transactional(readOnly = true)
-    public List<PostResponse> getAllPosts() {
-        return postRepository.findAllOrderByCreatedAtDesc()
-                .stream()
-                .map(this::mapToPostResponse)
-                .collect(Collectors.toList());
+    public CursorPage<PostResponse> getPosts(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<PostResponse> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFeedPage(pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            posts = postRepository.findFeedPageAfter(after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        if (posts.size() <= limit) {
+            return new CursorPage<>(posts, null);
+        }
+        List<PostResponse> page = posts.subList(0, limit);
+        PostResponse last = page.get(limit - 1);
+        return new CursorPage<>(page, new PageCursor(Timestamps.parse(last.getCreatedAt()), last.getId()).encode());
     }
 
     @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getPostsByUser(String username, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<PostResponse> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findPageByUsername(username, pageable);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            posts = postRepository.findPageByUsernameAfter(username, after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        if (posts.size() <= limit) {
+            return new CursorPage<>(posts, null);
+        }
+        List<PostResponse> page = posts.subList(0, limit);
+        PostResponse last = page.get(limit - 1);
+        return new CursorPage<>(page, new PageCursor(Timestamps.parse(last.getCreatedAt()), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId")
     public PostResponse getPostById(String postId) {
-        Post post = postRepository.findById(postId)
+        return postRepository.findResponseById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+    }
+
+    /**
+     * Version of the post returned by {@link #getPostById}, for conditional GETs; read without loading the post.
+     */
+    @Transactional(readOnly = true)
+    public long getPostVersion(String postId) {
+        return postRepository.findModifiedAt(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
-        return mapToPostResponse(post);
     }
 
     public PostResponse createPost(PostCreateRequest request) {
@@ -50,9 +110,16 @@ public class PostService {
                 .build();
 
         post = postRepository.save(post);
-        return mapToPostResponse(post);
+        PostResponse response = mapToPostResponse(post);
+        eventPublisher.publishEvent(ActivityEvent.builder()
+                .type(ActivityEvent.POST_CREATED)
+                .postId(post.getId())
+                .data(response)
+                .build());
+        return response;
     }
 
+    @CachePut(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId")
     public PostResponse updatePost(String postId, PostUpdateRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty() ||
             request.getContent() == null || request.getContent().trim().isEmpty()) {
@@ -67,33 +134,42 @@ public class PostService {
         }
 
         post.setContent(request.getContent());
-        post = postRepository.save(post);
+        postRepository.save(post);
 
-        return mapToPostResponse(post);
+        // The loaded counters may predate likes and comments committed since, so the cached response reads the row
+        return postRepository.findResponseById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.POSTS_CACHE, key = "#postId"),
+            @CacheEvict(cacheNames = CacheConfig.COMMENTS_CACHE, key = "#postId")
+    })
     public void deletePost(String postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
 
-        // Delete associated comments and likes (cascade should handle this)
-        commentRepository.deleteByPostId(postId);
-        likeRepository.deleteByPostId(postId);
+        // Comments and likes go in one bulk statement each; past the threshold they are left to PostPurger, so the
+        // request costs the same however much engagement the post has
+        if (postPurger.isDeferred((long) post.getLikeCount() + post.getCommentCount())) {
+            postRepository.insertTombstone(postId, System.currentTimeMillis());
+            postPurger.purgeAfterCommit();
+        } else {
+            commentRepository.deleteByPostId(postId);
+            likeRepository.deleteByPostId(postId);
+        }
         postRepository.delete(post);
     }
 
-    private PostResponse mapToPostResponse(Post post) {
-        int likesCount = likeRepository.countByPostId(post.getId());
-        int commentsCount = commentRepository.countByPostId(post.getId());
-
+    PostResponse mapToPostResponse(Post post) {
         return PostResponse.builder()
                 .id(post.getId())
                 .username(post.getUsername())
                 .content(post.getContent())
-                .createdAt(post.getCreatedAt())
-                .updatedAt(post.getUpdatedAt())
-                .likesCount(likesCount)
-                .commentsCount(commentsCount)
+                .createdAt(Timestamps.format(post.getCreatedAt()))
+                .updatedAt(Timestamps.format(post.getUpdatedAt()))
+                .likesCount(post.getLikeCount())
+                .commentsCount(post.getCommentCount())
                 .build();
     }
 }
@@ -0,0 +1,178 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.SearchIndexSetup;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.OffsetCursor;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.PostSearchResult;
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search over post and comment content, using the FTS5 indexes from {@link SearchIndexSetup}.
+ * A post is found by its own text or by any of its comments; each post appears once, ranked by its best match.
+ * Each index ranks at most its {@code socialapp.search.max-candidates} newest matches, so a broad term costs a
+ * bounded amount of scoring, and snippets are rendered for the page's rows alone. Every page is cut from the same
+ * candidates, so the pages of a query slice one ranking.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchService {
+
+    // Results beyond this depth are not paged to; a narrower query is the better answer
+    public static final int MAX_RESULTS = 1_000;
+    public static final int MAX_TERMS = 16;
+
+    // bm25() scores are negative, lower is better; halving a comment's score ranks it below an equal post match
+    private static final double COMMENT_WEIGHT = 0.5;
+    private static final int SNIPPET_TOKENS = 16;
+
+    // Words of letters and digits; a trailing * makes the word a prefix. Everything else is ignored, so user
+    // input is never interpreted as FTS5 query syntax
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+\\*?");
+    // Control characters that cannot appear in escaped output mark the matches until the snippet is escaped
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_END = "\u0003";
+
+    private static final String SEARCH_SQL =
+            "WITH post_hits AS (" + hits(SearchIndexSetup.POSTS_INDEX) + "), "
+            + "comment_hits AS (" + hits(SearchIndexSetup.COMMENTS_INDEX) + ") "
+            // min() makes SQLite take the other bare columns from the best-scoring row of each group
+            + "SELECT post_id, min(score) AS score, comment_id, hit_rowid FROM ("
+            + "SELECT p.id AS post_id, h.rank AS score, NULL AS comment_id, h.rowid AS hit_rowid "
+            + "FROM post_hits h JOIN posts p ON p.search_rowid = h.rowid "
+            + "UNION ALL "
+            + "SELECT c.post_id, h.rank * " + COMMENT_WEIGHT + ", c.id, h.rowid "
+            + "FROM comment_hits h JOIN comments c ON c.search_rowid = h.rowid) "
+            + "GROUP BY post_id ORDER BY score, post_id LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+
+    // bm25() has to be computed for every row it orders, so a term found in most of a large table would cost a
+    // pass over all of them. Only the newest matches are ranked: the inner query walks the doclist from the
+    // highest rowid (the latest write) and the outer one scores the rows at or above the one it stops at
+    @Value("${socialapp.search.max-candidates:5000}")
+    private int maxCandidates;
+
+    public CursorPage<PostSearchResult> search(String query, String cursor, int limit) {
+        if (limit < 1 || limit > PostService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + PostService.MAX_PAGE_SIZE);
+        }
+        String match = toMatchExpression(query);
+        int offset = cursor == null || cursor.isBlank() ? 0 : OffsetCursor.decode(cursor).getOffset();
+        if (offset >= MAX_RESULTS) {
+            return new CursorPage<>(List.of(), null);
+        }
+        int fetch = Math.min(limit, MAX_RESULTS - offset);
+
+        // The candidates do not depend on the page. Posts beyond the best MAX_RESULTS post matches can only rank
+        // through a comment. Comments are all kept, as any number of them can belong to a single post.
+        // One extra row tells whether another page exists
+        List<Hit> hits = jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> new Hit(rs.getString("post_id"), rs.getString("comment_id"), rs.getLong("hit_rowid")),
+                match, match, maxCandidates - 1, MAX_RESULTS + 1,
+                match, match, maxCandidates - 1, maxCandidates,
+                fetch + 1, offset);
+        String nextCursor = null;
+        if (hits.size() > fetch) {
+            hits = hits.subList(0, fetch);
+            if (offset + fetch < MAX_RESULTS) {
+                nextCursor = new OffsetCursor(offset + fetch).encode();
+            }
+        }
+        if (hits.isEmpty()) {
+            return new CursorPage<>(List.of(), nextCursor);
+        }
+
+        Map<String, PostResponse> posts = postRepository.findResponsesByIds(hits.stream().map(Hit::postId).toList())
+                .stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+        Map<Long, String> postSnippets = snippets(SearchIndexSetup.POSTS_INDEX, match,
+                hits.stream().filter(hit -> hit.commentId() == null).map(Hit::rowid).toList());
+        Map<Long, String> commentSnippets = snippets(SearchIndexSetup.COMMENTS_INDEX, match,
+                hits.stream().filter(hit -> hit.commentId() != null).map(Hit::rowid).toList());
+
+        List<PostSearchResult> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            PostResponse post = posts.get(hit.postId());
+            if (post == null) {
+                // Comment of a post that no longer exists
+                continue;
+            }
+            results.add(PostSearchResult.builder()
+                    .post(post)
+                    .snippet((hit.commentId() == null ? postSnippets : commentSnippets).get(hit.rowid()))
+                    .commentId(hit.commentId())
+                    .build());
+        }
+        return new CursorPage<>(results, nextCursor);
+    }
+
+    private static String hits(String index) {
+        return "SELECT rowid, rank FROM " + index + " WHERE " + index + " MATCH ? AND rowid >= coalesce(("
+                + "SELECT rowid FROM " + index + " WHERE " + index + " MATCH ? ORDER BY rowid DESC LIMIT 1 OFFSET ?), 0) "
+                + "ORDER BY rank LIMIT ?";
+    }
+
+    // Quotes every word, so each is matched as a plain term (stemmed and case-folded) and all must match
+    static String toMatchExpression(String query) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required");
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(query);
+        while (matcher.find()) {
+            String term = matcher.group();
+            terms.add(term.endsWith("*") ? "\"" + term.substring(0, term.length() - 1) + "\"*" : "\"" + term + "\"");
+        }
+        if (terms.isEmpty()) {
+            throw new BadRequestException("q must contain at least one word");
+        }
+        if (terms.size() > MAX_TERMS) {
+            throw new BadRequestException("q must contain at most " + MAX_TERMS + " words");
+        }
+        return String.join(" ", terms);
+    }
+
+    private Map<Long, String> snippets(String index, String match, List<Long> rowids) {
+        if (rowids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(rowids.size(), "?"));
+        List<Object> args = new ArrayList<>(rowids.size() + 1);
+        args.add(match);
+        args.addAll(rowids);
+        Map<Long, String> snippets = new HashMap<>();
+        jdbcTemplate.query("SELECT rowid, snippet(" + index + ", 0, '" + MATCH_START + "', '" + MATCH_END + "', '…', "
+                        + SNIPPET_TOKENS + ") AS snippet FROM " + index + " WHERE " + index + " MATCH ? AND rowid IN ("
+                        + placeholders + ")",
+                rs -> {
+                    snippets.put(rs.getLong("rowid"), HtmlUtils.htmlEscape(rs.getString("snippet"), "UTF-8")
+                            .replace(MATCH_START, "<mark>")
+                            .replace(MATCH_END, "</mark>"));
+                },
+                args.toArray());
+        return snippets;
+    }
+
+    private record Hit(String postId, String commentId, long rowid) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.contoso.socialapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exponentially decayed activity scores with the top {@code capacity} posts kept in rank order.
+ * Scores are stored as of a reference instant: an event at time t adds {@code weight * 2^((t - reference) / halfLife)},
+ * so every score decays at the same rate and ranking never needs a decay pass. {@link #decay} moves the reference
+ * to the present, which keeps the stored values small and drops posts whose activity has faded out.
+ * Between decays, scores only grow, so no post outside the top can overtake the last one in it without being
+ * added; the top stays exact with a single comparison per update. Writers serialize on a lock; readers walk the
+ * top set without one.
+ */
+final class TrendingRanking {
+
+    // Scores (in events) below which a post is forgotten at the next decay
+    static final double MIN_SCORE = 0.01;
+
+    private static final Comparator<Entry> RANK_ORDER =
+            Comparator.comparingDouble(Entry::score).reversed().thenComparing(Entry::postId);
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final Map<String, Double> scores = new HashMap<>();
+    private final Map<String, Entry> topEntries = new HashMap<>();
+
+    // Replaced as a whole by decay, so readers always pair a top set with its own reference time
+    private volatile State state;
+
+    TrendingRanking(int capacity, double halfLifeMillis, long now) {
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.state = new State(now, new ConcurrentSkipListSet<>(RANK_ORDER));
+    }
+
+    void add(String postId, double weight, long at) {
+        lock.lock();
+        try {
+            State current = state;
+            double score = scores.merge(postId, weight * growth(at - current.reference()), Double::sum);
+            Entry entry = new Entry(postId, score);
+            Entry previous = topEntries.get(postId);
+            if (previous != null) {
+                current.top().remove(previous);
+            } else if (topEntries.size() >= capacity) {
+                Entry last = current.top().last();
+                if (RANK_ORDER.compare(entry, last) > 0) {
+                    return;
+                }
+                current.top().remove(last);
+                topEntries.remove(last.postId());
+            }
+            current.top().add(entry);
+            topEntries.put(postId, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The first {@code limit} posts with their scores decayed to {@code now}. Costs O(limit).
+     */
+    List<Scored> top(int limit, long now) {
+        State current = state;
+        double factor = growth(current.reference() - now);
+        List<Scored> top = new ArrayList<>(Math.min(limit, capacity));
+        Iterator<Entry> entries = current.top().iterator();
+        while (top.size() < limit && entries.hasNext()) {
+            Entry entry = entries.next();
+            top.add(new Scored(entry.postId(), entry.score() * factor));
+        }
+        return top;
+    }
+
+    /**
+     * Rescales every score to {@code now} and forgets posts that have decayed below {@link #MIN_SCORE}.
+     */
+    void decay(long now) {
+        lock.lock();
+        try {
+            double factor = growth(state.reference() - now);
+            scores.replaceAll((postId, score) -> score * factor);
+            scores.values().removeIf(score -> score < MIN_SCORE);
+            rebuildTop(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops a post that no longer exists; the next best post takes its place in the top
+    void remove(String postId) {
+        lock.lock();
+        try {
+            if (scores.remove(postId) != null && topEntries.containsKey(postId)) {
+                rebuildTop(state.reference());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Every tracked score, decayed to {@code at}.
+     */
+    Map<String, Double> scores(long at) {
+        lock.lock();
+        try {
+            double factor = growth(state.reference() - at);
+            Map<String, Double> copy = new HashMap<>(scores.size());
+            scores.forEach((postId, score) -> copy.put(postId, score * factor));
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    private void rebuildTop(long reference) {
+        ConcurrentSkipListSet<Entry> top = new ConcurrentSkipListSet<>(RANK_ORDER);
+        topEntries.clear();
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            Entry entry = new Entry(score.getKey(), score.getValue());
+            if (top.size() < capacity) {
+                top.add(entry);
+            } else if (RANK_ORDER.compare(entry, top.last()) < 0) {
+                top.pollLast();
+                top.add(entry);
+            }
+        }
+        top.forEach(entry -> topEntries.put(entry.postId(), entry));
+        state = new State(reference, top);
+    }
+
+    private double growth(long elapsedMillis) {
+        return Math.pow(2, elapsedMillis / halfLifeMillis);
+    }
+
+    record Scored(String postId, double score) {
+    }
+
+    private record Entry(String postId, double score) {
+    }
+
+    private record State(long reference, ConcurrentSkipListSet<Entry> top) {
+    }
+}
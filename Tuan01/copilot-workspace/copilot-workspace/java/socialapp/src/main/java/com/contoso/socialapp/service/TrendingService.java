@@ -0,0 +1,244 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.ActivityEvent;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.TrendingPostResponse;
+import com.contoso.socialapp.entity.TrendingSnapshot;
+import com.contoso.socialapp.exception.BadRequestException;
+import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hot posts, ranked by likes and comments with exponential time decay ({@code socialapp.trending.half-life-minutes}).
+ * Scores live in a {@link TrendingRanking} fed by the committed like and comment events, so a trending read is
+ * the top entries plus one primary key query for the posts, never an aggregate over likes or comments.
+ * Scores are decayed on a schedule and written to {@code trending_scores} periodically and on shutdown.
+ * On startup the snapshot is loaded and the likes and comments created since it was taken are replayed; without a
+ * snapshot the scores are rebuilt from the likes and comments of the last ten half-lives.
+ * Removing a like or comment does not lower a score until the next rebuild.
+ */
+@Slf4j
+@Service
+public class TrendingService implements SmartInitializingSingleton {
+
+    public static final String TRACKED_GAUGE = "socialapp.trending.tracked";
+
+    // Activity replayed into the scores: since the snapshot was taken, or by age for a rebuild
+    public static final String LIKES_SINCE = "SELECT post_id, created_at FROM likes WHERE created_at >= ?";
+    public static final String COMMENTS_SINCE = "SELECT post_id, created_at FROM comments WHERE created_at >= ?";
+
+    static final double LIKE_WEIGHT = 1;
+    static final double COMMENT_WEIGHT = 2;
+
+    // Older activity contributes under 0.1% of its original weight
+    private static final int REBUILD_HALF_LIVES = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${socialapp.trending.size:100}")
+    private int size;
+
+    @Value("${socialapp.trending.half-life-minutes:360}")
+    private long halfLifeMinutes;
+
+    @Value("${socialapp.trending.decay-interval-ms:60000}")
+    private long decayIntervalMs;
+
+    @Value("${socialapp.trending.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs;
+
+    private volatile TrendingRanking ranking;
+    private ScheduledExecutorService maintainer;
+
+    public TrendingService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postRepository = postRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Runs once every singleton exists, so the schema and the timestamp migration are in place, and before the
+    // web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+        Gauge.builder(TRACKED_GAUGE, this, service -> service.ranking.size()).register(meterRegistry);
+        maintainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintainer.scheduleWithFixedDelay(this::decayQuietly, decayIntervalMs, decayIntervalMs, TimeUnit.MILLISECONDS);
+        maintainer.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (maintainer != null) {
+            maintainer.shutdown();
+            maintainer.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // Before the data source closes
+    @EventListener(ContextClosedEvent.class)
+    void snapshotOnShutdown() {
+        snapshotQuietly();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        switch (event.getType()) {
+            case ActivityEvent.LIKE_CREATED -> ranking.add(event.getPostId(), LIKE_WEIGHT, System.currentTimeMillis());
+            case ActivityEvent.COMMENT_CREATED ->
+                    ranking.add(event.getPostId(), COMMENT_WEIGHT, System.currentTimeMillis());
+            default -> {
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrendingPostResponse> getTrending(int limit) {
+        if (limit < 1 || limit > size) {
+            throw new BadRequestException("limit must be between 1 and " + size);
+        }
+        List<TrendingRanking.Scored> top = ranking.top(limit, System.currentTimeMillis());
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<String, PostResponse> posts = postRepository.findResponsesByIds(
+                        top.stream().map(TrendingRanking.Scored::postId).toList())
+                .stream()
+                .collect(Collectors.toMap(PostResponse::getId, Function.identity()));
+        List<TrendingPostResponse> trending = new ArrayList<>(top.size());
+        for (TrendingRanking.Scored scored : top) {
+            PostResponse post = posts.get(scored.postId());
+            if (post == null) {
+                // Deleted since it was last liked or commented on
+                ranking.remove(scored.postId());
+                continue;
+            }
+            trending.add(new TrendingPostResponse(post, scored.score()));
+        }
+        return trending;
+    }
+
+    void decay() {
+        ranking.decay(System.currentTimeMillis());
+    }
+
+    /**
+     * Replaces the stored snapshot with the current scores.
+     */
+    void snapshot() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Activity of the same millisecond may also be counted in the scores and is then replayed twice, which
+            // the snapshot interval keeps rare
+            long takenAt = System.currentTimeMillis();
+            List<Object[]> rows = ranking.scores(takenAt).entrySet().stream()
+                    .map(score -> new Object[]{score.getKey(), score.getValue()})
+                    .toList();
+            jdbcTemplate.update("DELETE FROM trending_scores");
+            jdbcTemplate.batchUpdate("INSERT INTO trending_scores (post_id, score) VALUES (?, ?)", rows);
+            jdbcTemplate.update("INSERT OR REPLACE INTO trending_snapshot (id, taken_at) VALUES (?, ?)",
+                    TrendingSnapshot.ID, takenAt);
+        });
+    }
+
+    /**
+     * Replaces the scores with the stored snapshot plus the activity recorded after it, as on startup.
+     */
+    void reload() {
+        ranking = load();
+    }
+
+    /**
+     * Discards the scores and recomputes them from likes and comments.
+     */
+    void rebuild() {
+        long now = System.currentTimeMillis();
+        TrendingRanking rebuilt = newRanking(now);
+        long since = now - TimeUnit.MINUTES.toMillis(halfLifeMinutes) * REBUILD_HALF_LIVES;
+        replay(rebuilt, LIKES_SINCE, since, LIKE_WEIGHT);
+        replay(rebuilt, COMMENTS_SINCE, since, COMMENT_WEIGHT);
+        ranking = rebuilt;
+    }
+
+    private TrendingRanking load() {
+        long started = System.currentTimeMillis();
+        List<TrendingSnapshot> snapshots = jdbcTemplate.query(
+                "SELECT taken_at FROM trending_snapshot WHERE id = ?",
+                (rs, rowNum) -> new TrendingSnapshot(TrendingSnapshot.ID, rs.getLong("taken_at")),
+                TrendingSnapshot.ID);
+        if (snapshots.isEmpty()) {
+            rebuild();
+            log.info("Rebuilt trending scores for {} posts in {} ms", ranking.size(),
+                    System.currentTimeMillis() - started);
+            return ranking;
+        }
+
+        TrendingSnapshot snapshot = snapshots.get(0);
+        TrendingRanking loaded = newRanking(System.currentTimeMillis());
+        jdbcTemplate.query("SELECT post_id, score FROM trending_scores",
+                rs -> {
+                    loaded.add(rs.getString("post_id"), rs.getDouble("score"), snapshot.getTakenAt());
+                });
+        replay(loaded, LIKES_SINCE, snapshot.getTakenAt(), LIKE_WEIGHT);
+        replay(loaded, COMMENTS_SINCE, snapshot.getTakenAt(), COMMENT_WEIGHT);
+        log.info("Loaded trending scores for {} posts in {} ms", loaded.size(), System.currentTimeMillis() - started);
+        return loaded;
+    }
+
+    private void replay(TrendingRanking target, String sql, long from, double weight) {
+        jdbcTemplate.query(sql, rs -> {
+            target.add(rs.getString("post_id"), weight, rs.getLong("created_at"));
+        }, from);
+    }
+
+    private TrendingRanking newRanking(long now) {
+        return new TrendingRanking(size, TimeUnit.MINUTES.toMillis(halfLifeMinutes), now);
+    }
+
+    private void decayQuietly() {
+        try {
+            decay();
+        } catch (RuntimeException e) {
+            log.error("Trending decay failed", e);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Trending snapshot failed", e);
+        }
+    }
+}
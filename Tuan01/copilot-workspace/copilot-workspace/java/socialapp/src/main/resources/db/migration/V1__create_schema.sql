@@ -0,0 +1,107 @@
+-- Schema as of the move from Hibernate's schema update to Flyway. Column types are the ones Hibernate maps the
+-- entities to, so spring.jpa.hibernate.ddl-auto=validate accepts them. Timestamps are INTEGER epoch milliseconds.
+
+CREATE TABLE posts (
+    id varchar(255) not null,
+    username varchar(255) not null,
+    content TEXT not null,
+    created_at bigint not null,
+    updated_at bigint,
+    like_count INTEGER DEFAULT 0 not null,
+    comment_count INTEGER DEFAULT 0 not null,
+    -- Conditional GET versions, advanced by every write to the post or to its comments
+    modified_at bigint,
+    comments_modified_at bigint,
+    primary key (id)
+);
+
+-- Feed pages, newest first
+CREATE INDEX idx_posts_created_at_id ON posts (created_at, id);
+-- A user's posts, newest first
+CREATE INDEX idx_posts_username_created_at_id ON posts (username, created_at, id);
+
+-- The foreign keys document the relationship and let PRAGMA foreign_key_check list comments and likes of deleted
+-- posts still waiting for the purge. They are not enforced (SQLite's foreign_keys pragma stays off), as those
+-- rows outlive their post until then
+CREATE TABLE comments (
+    id varchar(255) not null,
+    post_id varchar(255) not null,
+    username varchar(255) not null,
+    content TEXT not null,
+    created_at bigint not null,
+    updated_at bigint,
+    primary key (id),
+    foreign key (post_id) references posts (id)
+);
+
+-- A post's comments, oldest first; also serves the purge and per-post counts
+CREATE INDEX idx_comments_post_id_created_at_id ON comments (post_id, created_at, id);
+-- A user's comments across all posts, newest first
+CREATE INDEX idx_comments_username_created_at_id ON comments (username, created_at, id);
+
+-- The primary key serves lookups by post and by (post, user)
+CREATE TABLE likes (
+    post_id varchar(255) not null,
+    username varchar(255) not null,
+    created_at bigint not null,
+    primary key (post_id, username),
+    foreign key (post_id) references posts (id)
+);
+
+-- Posts a user liked, most recently liked first
+CREATE INDEX idx_likes_username_created_at_post_id ON likes (username, created_at, post_id);
+
+-- Deleted posts whose comments and likes are still being purged
+CREATE TABLE post_tombstones (
+    post_id varchar(255) not null,
+    deleted_at bigint not null,
+    primary key (post_id)
+);
+
+-- Trending scores as of the last snapshot, and when it was taken
+CREATE TABLE trending_scores (
+    post_id varchar(255) not null,
+    score float not null,
+    primary key (post_id)
+);
+
+CREATE TABLE trending_snapshot (
+    id integer not null,
+    taken_at bigint not null,
+    likes_rowid bigint not null,
+    comments_rowid bigint not null,
+    primary key (id)
+);
+
+-- Full-text search: external-content FTS5 indexes over the content columns, keyed by the base row's rowid. Porter
+-- stemming over unicode61, so "liked" finds "likes"; diacritics are folded ("cafe" finds "café")
+CREATE VIRTUAL TABLE posts_fts USING fts5(content, content='posts', tokenize='porter unicode61 remove_diacritics 2');
+CREATE VIRTUAL TABLE comments_fts USING fts5(content, content='comments', tokenize='porter unicode61 remove_diacritics 2');
+
+-- Triggers keep the indexes in sync with every write path, including bulk import and raw JDBC. External-content
+-- tables are told which terms to remove by passing the old values back in with 'delete'
+CREATE TRIGGER posts_fts_insert AFTER INSERT ON posts BEGIN
+    INSERT INTO posts_fts (rowid, content) VALUES (new.rowid, new.content);
+END;
+
+CREATE TRIGGER posts_fts_delete AFTER DELETE ON posts BEGIN
+    INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.rowid, old.content);
+END;
+
+CREATE TRIGGER posts_fts_update AFTER UPDATE OF content ON posts BEGIN
+    INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.rowid, old.content);
+    INSERT INTO posts_fts (rowid, content) VALUES (new.rowid, new.content);
+END;
+
+CREATE TRIGGER comments_fts_insert AFTER INSERT ON comments BEGIN
+    INSERT INTO comments_fts (rowid, content) VALUES (new.rowid, new.content);
+END;
+
+CREATE TRIGGER comments_fts_delete AFTER DELETE ON comments BEGIN
+    INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.rowid, old.content);
+END;
+
+CREATE TRIGGER comments_fts_update AFTER UPDATE OF content ON comments BEGIN
+    INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.rowid, old.content);
+    INSERT INTO comments_fts (rowid, content) VALUES (new.rowid, new.content);
+END;
@@ -0,0 +1,4 @@
+-- Likes and comments by age, for rebuilding the trending scores without a usable snapshot (TrendingService).
+-- post_id is included so the rebuild reads the index alone
+CREATE INDEX idx_likes_created_at_post_id ON likes (created_at, post_id);
+CREATE INDEX idx_comments_created_at_post_id ON comments (created_at, post_id);
@@ -0,0 +1,95 @@
+-- The search indexes were keyed by the implicit rowid of posts and comments, which VACUUM may renumber as both have
+-- text primary keys. The tables are rebuilt with an INTEGER PRIMARY KEY, search_rowid: a rowid alias, which VACUUM
+-- keeps. The indexes are keyed by it (content_rowid); id stays unique, so lookups by id and the foreign keys to
+-- posts (id) are served as before. The entities do not map search_rowid, so every insert gets the next one
+
+DROP TRIGGER posts_fts_insert;
+DROP TRIGGER posts_fts_delete;
+DROP TRIGGER posts_fts_update;
+DROP TRIGGER comments_fts_insert;
+DROP TRIGGER comments_fts_delete;
+DROP TRIGGER comments_fts_update;
+DROP TABLE posts_fts;
+DROP TABLE comments_fts;
+
+CREATE TABLE posts_rekeyed (
+    search_rowid INTEGER PRIMARY KEY,
+    id varchar(255) not null unique,
+    username varchar(255) not null,
+    content TEXT not null,
+    created_at bigint not null,
+    updated_at bigint,
+    like_count INTEGER DEFAULT 0 not null,
+    comment_count INTEGER DEFAULT 0 not null,
+    modified_at bigint,
+    comments_modified_at bigint
+);
+
+INSERT INTO posts_rekeyed (search_rowid, id, username, content, created_at, updated_at, like_count, comment_count,
+                           modified_at, comments_modified_at)
+SELECT rowid, id, username, content, created_at, updated_at, like_count, comment_count, modified_at,
+       comments_modified_at
+FROM posts;
+
+DROP TABLE posts;
+ALTER TABLE posts_rekeyed RENAME TO posts;
+
+CREATE INDEX idx_posts_created_at_id ON posts (created_at, id);
+CREATE INDEX idx_posts_username_created_at_id ON posts (username, created_at, id);
+
+CREATE TABLE comments_rekeyed (
+    search_rowid INTEGER PRIMARY KEY,
+    id varchar(255) not null unique,
+    post_id varchar(255) not null,
+    username varchar(255) not null,
+    content TEXT not null,
+    created_at bigint not null,
+    updated_at bigint,
+    foreign key (post_id) references posts (id)
+);
+
+INSERT INTO comments_rekeyed (search_rowid, id, post_id, username, content, created_at, updated_at)
+SELECT rowid, id, post_id, username, content, created_at, updated_at
+FROM comments;
+
+DROP TABLE comments;
+ALTER TABLE comments_rekeyed RENAME TO comments;
+
+CREATE INDEX idx_comments_post_id_created_at_id ON comments (post_id, created_at, id);
+CREATE INDEX idx_comments_username_created_at_id ON comments (username, created_at, id);
+CREATE INDEX idx_comments_created_at_post_id ON comments (created_at, post_id);
+
+CREATE VIRTUAL TABLE posts_fts USING fts5(content, content='posts', content_rowid='search_rowid',
+    tokenize='porter unicode61 remove_diacritics 2');
+CREATE VIRTUAL TABLE comments_fts USING fts5(content, content='comments', content_rowid='search_rowid',
+    tokenize='porter unicode61 remove_diacritics 2');
+
+CREATE TRIGGER posts_fts_insert AFTER INSERT ON posts BEGIN
+    INSERT INTO posts_fts (rowid, content) VALUES (new.search_rowid, new.content);
+END;
+
+CREATE TRIGGER posts_fts_delete AFTER DELETE ON posts BEGIN
+    INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.search_rowid, old.content);
+END;
+
+CREATE TRIGGER posts_fts_update AFTER UPDATE OF content ON posts BEGIN
+    INSERT INTO posts_fts (posts_fts, rowid, content) VALUES ('delete', old.search_rowid, old.content);
+    INSERT INTO posts_fts (rowid, content) VALUES (new.search_rowid, new.content);
+END;
+
+CREATE TRIGGER comments_fts_insert AFTER INSERT ON comments BEGIN
+    INSERT INTO comments_fts (rowid, content) VALUES (new.search_rowid, new.content);
+END;
+
+CREATE TRIGGER comments_fts_delete AFTER DELETE ON comments BEGIN
+    INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.search_rowid, old.content);
+END;
+
+CREATE TRIGGER comments_fts_update AFTER UPDATE OF content ON comments BEGIN
+    INSERT INTO comments_fts (comments_fts, rowid, content) VALUES ('delete', old.search_rowid, old.content);
+    INSERT INTO comments_fts (rowid, content) VALUES (new.search_rowid, new.content);
+END;
+
+-- Indexes whatever the old ones had missed
+INSERT INTO posts_fts (posts_fts) VALUES ('rebuild');
+INSERT INTO comments_fts (comments_fts) VALUES ('rebuild');
@@ -0,0 +1,4 @@
+-- The trending snapshot is replayed from its taken_at: rowids of likes are reused once the last row is deleted and
+-- may be renumbered by VACUUM, so a rowid watermark could skip activity recorded after it
+ALTER TABLE trending_snapshot DROP COLUMN likes_rowid;
+ALTER TABLE trending_snapshot DROP COLUMN comments_rowid;
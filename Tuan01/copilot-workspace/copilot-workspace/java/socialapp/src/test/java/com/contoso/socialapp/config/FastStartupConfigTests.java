@@ -0,0 +1,49 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.id.Ids;
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import com.contoso.socialapp.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastStartupConfigTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void lazyStartupStillInstallsTheConfiguredIdGenerator() {
+		String url = "jdbc:sqlite:" + tempDir.resolve("fast-startup.db");
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SocialappApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off",
+						"--spring.profiles.active=test,fast-startup",
+						"--spring.datasource.url=" + url,
+						"--socialapp.ids.generator=uuid-v7")) {
+			ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+			assertThat(beanFactory.containsSingleton("idGenerator")).isTrue();
+			assertThat(beanFactory.containsSingleton("trendingService")).isTrue();
+			assertThat(beanFactory.containsSingleton("postService")).isFalse();
+
+			// Id generation is the first thing the lazily created service does
+			PostCreateRequest request = new PostCreateRequest();
+			request.setUsername("autoscaled");
+			request.setContent("started lazily");
+			String id = context.getBean(PostService.class).createPost(request).getId();
+			assertThat(id).hasSize(36).matches("[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-.*");
+		} finally {
+			// The generator is process-wide; the other test contexts installed this one
+			Ids.use(new SnowflakeIdGenerator(0));
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.contoso.socialapp.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LegacySchemaMigrationTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void adoptsHibernateCreatedTablesAndConvertsIsoTextTimestamps() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:sqlite:" + tempDir.resolve("legacy.db"));
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		// Schema as generated by Hibernate while timestamps were strings, with the search index of that time
+		jdbc.execute("CREATE TABLE posts (id varchar(255) not null, content TEXT not null, created_at varchar(255) not null, "
+				+ "updated_at varchar(255), username varchar(255) not null, comment_count INTEGER DEFAULT 0 not null, "
+				+ "like_count INTEGER DEFAULT 0 not null, primary key (id))");
+		jdbc.execute("CREATE INDEX idx_posts_created_at_id on posts (created_at, id)");
+		jdbc.execute("CREATE TABLE comments (id varchar(255) not null, content TEXT not null, created_at varchar(255) not null, "
+				+ "updated_at varchar(255), username varchar(255) not null, post_id varchar(255) not null, primary key (id))");
+		jdbc.execute("CREATE INDEX idx_comments_post_id_created_at_id on comments (post_id, created_at, id)");
+		jdbc.execute("CREATE TABLE likes (post_id varchar(255) not null, username varchar(255) not null, "
+				+ "created_at varchar(255) not null, primary key (post_id, username))");
+		jdbc.execute("CREATE VIRTUAL TABLE posts_fts USING fts5(content, content='posts')");
+		jdbc.execute("CREATE TRIGGER posts_fts_insert AFTER INSERT ON posts BEGIN "
+				+ "INSERT INTO posts_fts(rowid, content) VALUES (new.rowid, new.content); END");
+
+		String created = "2024-05-01T10:15:30.123456789Z";
+		String updated = "2024-05-02T08:00:00Z";
+		jdbc.update("INSERT INTO posts VALUES ('p1', 'hello', ?, ?, 'alice', 1, 2)", created, updated);
+		jdbc.update("INSERT INTO posts (id, content, created_at, username) VALUES ('p2', 'world', ?, 'bob')", updated);
+		jdbc.update("INSERT INTO comments VALUES ('c1', 'nice', ?, NULL, 'bob', 'p1')", updated);
+		jdbc.update("INSERT INTO likes VALUES ('p1', 'carol', ?)", created);
+
+		LegacySchemaMigration migration = new LegacySchemaMigration();
+		migration.migrate(Flyway.configure().dataSource(dataSource).load());
+		migration.migrate(Flyway.configure().dataSource(dataSource).load());
+
+		Map<String, Object> post = jdbc.queryForMap(
+				"SELECT created_at, typeof(created_at) AS created_type, updated_at, like_count, comment_count, modified_at "
+						+ "FROM posts WHERE id = 'p1'");
+		assertThat(post.get("created_type")).isEqualTo("integer");
+		assertThat(((Number) post.get("created_at")).longValue()).isEqualTo(Instant.parse(created).toEpochMilli());
+		assertThat(((Number) post.get("updated_at")).longValue()).isEqualTo(Instant.parse(updated).toEpochMilli());
+		assertThat(post).containsEntry("like_count", 2).containsEntry("comment_count", 1);
+		assertThat(post.get("modified_at")).isNull();
+		assertThat(jdbc.queryForObject("SELECT updated_at FROM posts WHERE id = 'p2'", Long.class)).isNull();
+		assertThat(jdbc.queryForObject("SELECT created_at FROM comments WHERE id = 'c1'", Long.class))
+				.isEqualTo(Instant.parse(updated).toEpochMilli());
+		assertThat(jdbc.queryForObject("SELECT typeof(created_at) FROM likes", String.class)).isEqualTo("integer");
+
+		// The migrated schema: indexes, foreign keys, and a search index over the copied rows
+		assertThat(jdbc.queryForList("SELECT type FROM pragma_table_info('posts') WHERE name LIKE '%_at'", String.class))
+				.containsOnly("bigint");
+		assertThat(jdbc.queryForList("SELECT name FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL", String.class))
+				.contains("idx_posts_created_at_id", "idx_posts_username_created_at_id", "idx_comments_post_id_created_at_id",
+						"idx_comments_username_created_at_id", "idx_likes_username_created_at_post_id");
+		assertThat(jdbc.queryForList("SELECT \"table\" FROM pragma_foreign_key_list('likes')", String.class))
+				.containsExactly("posts");
+		assertThat(jdbc.queryForList("SELECT rowid FROM posts_fts WHERE posts_fts MATCH 'world'", Long.class))
+				.containsExactly(jdbc.queryForObject("SELECT search_rowid FROM posts WHERE id = 'p2'", Long.class));
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM comments_fts WHERE comments_fts MATCH 'nice'", Integer.class))
+				.isOne();
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM sqlite_master WHERE name LIKE '%_legacy'", Integer.class))
+				.isZero();
+		assertThat(jdbc.queryForObject(
+				"SELECT count(*) FROM flyway_schema_history WHERE version = '1' AND success", Integer.class)).isOne();
+	}
+}
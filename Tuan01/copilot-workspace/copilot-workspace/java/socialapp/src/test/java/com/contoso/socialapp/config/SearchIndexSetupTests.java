@@ -0,0 +1,65 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.service.PostService;
+import com.contoso.socialapp.service.SearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexSetupTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void indexSurvivesARestartAndAVacuum() {
+		String url = "jdbc:sqlite:" + tempDir.resolve("search.db");
+		String postId;
+		try (ConfigurableApplicationContext first = start(url)) {
+			PostService postService = first.getBean(PostService.class);
+			PostCreateRequest request = new PostCreateRequest();
+			request.setUsername("indexer");
+			request.setContent("deleted before the vacuum");
+			String deleted = postService.createPost(request).getId();
+			request.setContent("survives a restart");
+			postId = postService.createPost(request).getId();
+			postService.deletePost(deleted);
+		}
+
+		// The migrations have already run; the index and its triggers are left as they are
+		try (ConfigurableApplicationContext second = start(url)) {
+			SearchService searchService = second.getBean(SearchService.class);
+			assertThat(searchService.search("restart", null, 10).getItems())
+					.extracting(result -> result.getPost().getId()).containsExactly(postId);
+
+			// VACUUM may renumber implicit rowids, but not an INTEGER PRIMARY KEY, which keys the index
+			JdbcTemplate jdbcTemplate = second.getBean(JdbcTemplate.class);
+			assertThat(jdbcTemplate.queryForList("SELECT name FROM pragma_table_info('posts') WHERE pk = 1",
+					String.class)).containsExactly("search_rowid");
+			jdbcTemplate.execute("VACUUM");
+			assertThat(searchService.search("restart", null, 10).getItems())
+					.extracting(result -> result.getPost().getId()).containsExactly(postId);
+			// Fails with SQLITE_CORRUPT_VTAB where the index and the table disagree
+			jdbcTemplate.update("INSERT INTO posts_fts(posts_fts, rank) VALUES ('integrity-check', 1)");
+			jdbcTemplate.update("INSERT INTO comments_fts(comments_fts, rank) VALUES ('integrity-check', 1)");
+		}
+	}
+
+	private static ConfigurableApplicationContext start(String url) {
+		return new SpringApplicationBuilder(SocialappApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off",
+						"--spring.datasource.url=" + url,
+						"--spring.jpa.show-sql=false",
+						"--logging.level.org.hibernate.SQL=INFO");
+	}
+}
@@ -0,0 +1,61 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.exception.ResourceNotFoundException;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ServiceMetricsAspectTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void servicesRepositoriesAndDuplicateLikesAreExposedToPrometheus() {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("measured");
+		String postId = postService.createPost(create).getId();
+		LikeRequest like = new LikeRequest();
+		like.setUsername("fan");
+		likeService.likePost(postId, like);
+		likeService.likePost(postId, like);
+		assertThatThrownBy(() -> postService.getPostById("missing")).isInstanceOf(ResourceNotFoundException.class);
+
+		assertThat(meterRegistry.get(ServiceMetricsAspect.SERVICE_TIMER)
+				.tags("class", "LikeService", "method", "likePost", "exception", "none").timer().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(ServiceMetricsAspect.SERVICE_TIMER)
+				.tags("method", "getPostById", "exception", "ResourceNotFoundException").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(LikeService.DUPLICATE_LIKES_COUNTER).tag("path", "exists").counter().count())
+				.isEqualTo(1);
+
+		String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+		assertThat(scrape)
+				.contains("socialapp_service_seconds_bucket{")
+				.contains("spring_data_repository_invocations_seconds_bucket{")
+				.contains("socialapp_likes_duplicates_total{");
+	}
+}
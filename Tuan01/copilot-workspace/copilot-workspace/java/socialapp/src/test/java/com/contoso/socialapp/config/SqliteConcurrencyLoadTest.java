@@ -0,0 +1,139 @@
+package com.contoso.socialapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed feed-read / like-write load against the default single-pool rollback-journal setup and the
+ * prod profile's WAL writer/reader split. Run with {@code ./gradlew loadTest}; prints ops/s per setup.
+ */
+@Tag("load")
+class SqliteConcurrencyLoadTest {
+
+	private static final int THREADS = 16;
+	private static final int POSTS = 2_000;
+	private static final long DURATION_MS = 5_000;
+	private static final int WRITE_PERCENT = 20;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void walWithSplitPoolsOutperformsDefaultJournal() throws Exception {
+		Result baseline;
+		try (HikariDataSource pool = pool(tempDir.resolve("default.db") + "", 10, false)) {
+			baseline = run("default journal, 1 pool x10", pool, pool);
+		}
+
+		Result tuned;
+		String tunedDb = tempDir.resolve("tuned.db").toString();
+		try (HikariDataSource writer = pool(tunedDb + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000"
+						+ "&cache_size=-65536&mmap_size=268435456", 1, false);
+			 HikariDataSource reader = pool(tunedDb + "?open_mode=1&busy_timeout=5000"
+						+ "&cache_size=-65536&mmap_size=268435456", 8, true)) {
+			LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(writer);
+			routing.setReadOnlyDataSource(reader);
+			tuned = run("WAL, writer x1 + readers x8", routing, writer);
+		}
+
+		assertThat(tuned.errors).isZero();
+		assertThat(tuned.opsPerSecond()).isGreaterThan(baseline.opsPerSecond());
+	}
+
+	private Result run(String label, DataSource dataSource, DataSource schemaDataSource) throws InterruptedException {
+		seed(new JdbcTemplate(schemaDataSource));
+
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		TransactionTemplate writes = new TransactionTemplate(transactionManager);
+		TransactionTemplate reads = new TransactionTemplate(transactionManager);
+		reads.setReadOnly(true);
+
+		LongAdder readOps = new LongAdder();
+		LongAdder writeOps = new LongAdder();
+		LongAdder errors = new LongAdder();
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			executor.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (running.get()) {
+					try {
+						if (random.nextInt(100) < WRITE_PERCENT) {
+							String postId = "post-" + random.nextInt(POSTS);
+							writes.executeWithoutResult(status -> {
+								jdbc.update("INSERT OR IGNORE INTO likes (post_id, username, created_at) VALUES (?, ?, ?)",
+										postId, UUID.randomUUID().toString(), Instant.now().toString());
+								jdbc.update("UPDATE posts SET like_count = like_count + 1 WHERE id = ?", postId);
+							});
+							writeOps.increment();
+						} else {
+							reads.executeWithoutResult(status -> jdbc.queryForList(
+									"SELECT id, username, content, created_at, like_count FROM posts "
+											+ "ORDER BY created_at DESC, id DESC LIMIT 20"));
+							readOps.increment();
+						}
+					} catch (RuntimeException e) {
+						errors.increment();
+					}
+				}
+			});
+		}
+		Thread.sleep(DURATION_MS);
+		running.set(false);
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.SECONDS);
+
+		Result result = new Result(readOps.sum(), writeOps.sum(), errors.sum());
+		System.out.printf("%-30s reads=%d writes=%d errors=%d -> %.0f ops/s%n",
+				label, result.reads, result.writes, result.errors, result.opsPerSecond());
+		return result;
+	}
+
+	private static void seed(JdbcTemplate jdbc) {
+		jdbc.execute("CREATE TABLE posts (id TEXT PRIMARY KEY, username TEXT NOT NULL, content TEXT NOT NULL, "
+				+ "created_at TEXT NOT NULL, updated_at TEXT, like_count INTEGER NOT NULL DEFAULT 0)");
+		jdbc.execute("CREATE INDEX idx_posts_created_at_id ON posts (created_at, id)");
+		jdbc.execute("CREATE TABLE likes (post_id TEXT NOT NULL, username TEXT NOT NULL, created_at TEXT NOT NULL, "
+				+ "PRIMARY KEY (post_id, username))");
+		jdbc.batchUpdate("INSERT INTO posts (id, username, content, created_at) VALUES (?, ?, ?, ?)",
+				java.util.stream.IntStream.range(0, POSTS)
+						.mapToObj(i -> new Object[]{"post-" + i, "user" + (i % 100), "content " + i,
+								Instant.ofEpochSecond(1_700_000_000L + i).toString()})
+						.toList());
+	}
+
+	private static HikariDataSource pool(String url, int size, boolean readOnly) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:sqlite:" + url);
+		pool.setMaximumPoolSize(size);
+		pool.setReadOnly(readOnly);
+		pool.setConnectionTimeout(10_000);
+		return pool;
+	}
+
+	private record Result(long reads, long writes, long errors) {
+		double opsPerSecond() {
+			return (reads + writes) * 1000.0 / DURATION_MS;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.service.PostService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:build/sns_api-test-prod.db?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+		"socialapp.datasource.reader.jdbc-url=jdbc:sqlite:build/sns_api-test-prod.db?open_mode=1&busy_timeout=5000"
+})
+@ActiveProfiles({"test", "prod"})
+class SqliteDataSourceConfigTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private HikariDataSource writerDataSource;
+
+	@Autowired
+	private HikariDataSource readerDataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void readOnlyTransactionsAreServedByTheReaderPool() {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("routed");
+		String postId = postService.createPost(create).getId();
+
+		assertThat(postService.getPosts(null, 10).getItems()).extracting("id").contains(postId);
+		assertThat(readerDataSource.getHikariPoolMXBean()).isNotNull();
+		assertThat(readerDataSource.getHikariPoolMXBean().getTotalConnections()).isPositive();
+		assertThat(writerDataSource.getMaximumPoolSize()).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		assertThatThrownBy(() -> readOnly.executeWithoutResult(status ->
+				jdbcTemplate.update("UPDATE posts SET content = 'changed' WHERE id = ?", postId)))
+				.hasMessageContaining("readonly");
+	}
+}
@@ -0,0 +1,134 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.CommentUpdateRequest;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.LikeService;
+import com.contoso.socialapp.service.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void postIsRevalidatedUntilItsContentOrCountersChange() throws Exception {
+		String path = "/posts/" + createPost();
+		String etag = etag(path);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		// Only the version lookup
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		likeService.likePost(path.substring("/posts/".length()), like("fan"));
+		String liked = etag(path);
+		assertThat(liked).isNotEqualTo(etag);
+		mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, liked));
+
+		// Without If-None-Match, Last-Modified is compared
+		String lastModified = mockMvc.perform(get(path)).andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+		mockMvc.perform(get(path).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(get("/posts/missing").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void commentPagesAreRevalidatedUntilAnyCommentChanges() throws Exception {
+		String postId = createPost();
+		String commentId = commentService.createComment(postId, comment("first")).getId();
+		String path = "/posts/" + postId + "/comments";
+		String etag = etag(path);
+
+		mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+		mockMvc.perform(get(path).param("limit", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		// Likes change the post, not its comments
+		likeService.likePost(postId, like("fan"));
+		mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+		CommentUpdateRequest update = new CommentUpdateRequest();
+		update.setUsername("commenter");
+		update.setContent("edited");
+		commentService.updateComment(postId, commentId, update);
+		String edited = etag(path);
+		assertThat(edited).isNotEqualTo(etag);
+
+		commentService.deleteComment(postId, commentId);
+		mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, edited))
+				.andExpect(status().isOk())
+				.andExpect(content().json("[]"));
+	}
+
+	private String etag(String path) throws Exception {
+		MvcResult result = mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn();
+		return result.getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private String createPost() {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("author");
+		request.setContent("cached by clients");
+		return postService.createPost(request).getId();
+	}
+
+	private static CommentCreateRequest comment(String content) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername("commenter");
+		request.setContent(content);
+		return request;
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
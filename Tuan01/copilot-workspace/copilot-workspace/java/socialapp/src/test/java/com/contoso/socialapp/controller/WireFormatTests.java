@@ -0,0 +1,119 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class WireFormatTests {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private PostService postService;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void binaryFormatsAreNegotiatedAndCarryTheSameFields() throws Exception {
+		PostResponse post = createPost("x".repeat(40));
+
+		HttpResponse<byte[]> json = get("/posts/" + post.getId(), "application/json", null);
+		HttpResponse<byte[]> cbor = get("/posts/" + post.getId(), "application/cbor", null);
+		HttpResponse<byte[]> smile = get("/posts/" + post.getId(), "application/x-jackson-smile", null);
+		HttpResponse<byte[]> any = get("/posts/" + post.getId(), "*/*", null);
+
+		assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+		assertThat(smile.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+		assertThat(any.headers().firstValue("Content-Type")).hasValue("application/json");
+		assertThat(cbor.headers().allValues("Vary"))
+				.flatMap(vary -> List.of(vary.split(",")))
+				.anyMatch(field -> field.trim().equalsIgnoreCase("Accept"));
+		JsonNode expected = JSON.readTree(json.body());
+		assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.body())).isEqualTo(expected);
+		assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.body())).isEqualTo(expected);
+		assertThat(expected.get("createdAt").asText()).isEqualTo(post.getCreatedAt());
+
+		// Request bodies too
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("binary");
+		request.setContent("sent as CBOR");
+		HttpResponse<byte[]> created = client.send(HttpRequest.newBuilder(uri("/posts"))
+				.header("Content-Type", "application/cbor")
+				.header("Accept", "application/cbor")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(new ObjectMapper(new CBORFactory()).writeValueAsBytes(request)))
+				.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(created.statusCode()).isEqualTo(201);
+		assertThat(new ObjectMapper(new CBORFactory()).readTree(created.body()).get("content").asText())
+				.isEqualTo("sent as CBOR");
+	}
+
+	@Test
+	void responsesAboveTheThresholdAreGzipped() throws Exception {
+		PostResponse small = createPost("short");
+		PostResponse large = createPost("long ".repeat(400));
+
+		HttpResponse<byte[]> compressed = get("/posts/" + large.getId(), "application/json", "gzip");
+		assertThat(compressed.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		assertThat(JSON.readTree(gunzip(compressed.body())).get("content").asText()).isEqualTo(large.getContent());
+		assertThat(compressed.body().length).isLessThan(large.getContent().length() / 4);
+
+		// Binary formats compress too; bodies under 1 KB are sent as they are
+		assertThat(get("/posts/" + large.getId(), "application/cbor", "gzip").headers().firstValue("Content-Encoding"))
+				.hasValue("gzip");
+		assertThat(get("/posts/" + small.getId(), "application/json", "gzip").headers().firstValue("Content-Encoding"))
+				.isEmpty();
+	}
+
+	private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).header("Accept", accept);
+		if (acceptEncoding != null) {
+			request.header("Accept-Encoding", acceptEncoding);
+		}
+		HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(response.statusCode()).isEqualTo(200);
+		return response;
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + "/api" + path);
+	}
+
+	private PostResponse createPost(String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("wire");
+		request.setContent(content);
+		return postService.createPost(request);
+	}
+
+	private static byte[] gunzip(byte[] body) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.contoso.socialapp.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeIdGeneratorTests {
+
+	private static final long NOW = 1_760_000_000_000L;
+
+	@Test
+	void idsAreCompactAndSortInIssueOrderEvenWithinOneMillisecond() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+		List<String> ids = new ArrayList<>();
+		// More ids than one millisecond's sequence space, then a clock step back
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(generator.nextId(NOW));
+		}
+		ids.add(generator.nextId(NOW - 1_000));
+		ids.add(generator.nextId(NOW + 60_000));
+
+		assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(SnowflakeIdGenerator.LENGTH));
+		assertThat(ids).isSorted().doesNotHaveDuplicates();
+		assertThat(SnowflakeIdGenerator.timestampOf(ids.get(0))).isEqualTo(NOW);
+		assertThat(SnowflakeIdGenerator.timestampOf(ids.get(ids.size() - 1))).isEqualTo(NOW + 60_000);
+	}
+
+	@Test
+	void concurrentCallersNeverReceiveTheSameId() throws InterruptedException {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+		var ids = ConcurrentHashMap.<String>newKeySet();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			IntStream.range(0, 8).forEach(t -> executor.execute(() -> {
+				for (int i = 0; i < 20_000; i++) {
+					ids.add(generator.nextId(System.currentTimeMillis()));
+				}
+			}));
+		}
+		assertThat(ids).hasSize(160_000);
+	}
+
+	@Test
+	void uuidV7IdsAreTimeOrderedAcrossMilliseconds() {
+		UuidV7IdGenerator generator = new UuidV7IdGenerator();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			ids.add(generator.nextId(NOW + i));
+		}
+		assertThat(ids).isSorted();
+		assertThat(new HashSet<>(ids)).hasSize(100);
+		assertThat(ids.get(0).charAt(14)).isEqualTo('7');
+	}
+}
@@ -0,0 +1,141 @@
+package com.contoso.socialapp.load;
+
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.service.LiveFeed;
+import com.contoso.socialapp.service.PostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SynchronizedHistogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds {@code load.subscribers} live feed connections open while posts are created at a steady pace, and prints
+ * the delivery latency from commit to receipt, the platform threads the subscribers cost, and the SQL statements
+ * issued per event (subscribers never query). Run with {@code ./gradlew loadTest --tests '*LiveFeedLoadTest'}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:build/sns_api-test-live-load.db",
+		"spring.threads.virtual.enabled=true"
+})
+@ActiveProfiles("test")
+class LiveFeedLoadTest {
+
+	private static final String CREATED_AT = "\"createdAt\":\"";
+
+	private final int subscribers = Integer.getInteger("load.subscribers", 2_000);
+	private final int events = Integer.getInteger("load.events", 50);
+	private final long intervalMs = Long.getLong("load.intervalMs", 200);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void thousandsOfSubscribersReceiveEveryEventWithoutAThreadEach() throws Exception {
+		int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+		Histogram latency = new SynchronizedHistogram(60_000, 3);
+		CountDownLatch delivered = new CountDownLatch(subscribers);
+		AtomicInteger failedSubscribers = new AtomicInteger();
+		List<Socket> connections = new ArrayList<>();
+
+		// Connections are closed before the executor waits for its readers
+		try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+			try {
+				// Plain sockets keep the client side cheap; HTTP/1.0 keeps the stream free of chunk framing
+				for (int i = 0; i < subscribers; i++) {
+					Socket socket = new Socket("localhost", port);
+					connections.add(socket);
+					socket.getOutputStream().write(("GET /api/events HTTP/1.0\r\nHost: localhost\r\n"
+							+ "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+					readers.execute(() -> {
+						int received = 0;
+						try (BufferedReader lines = new BufferedReader(
+								new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+							String line;
+							while (received < events && (line = lines.readLine()) != null) {
+								if (line.startsWith("data:")) {
+									int start = line.indexOf(CREATED_AT) + CREATED_AT.length();
+									String createdAt = line.substring(start, line.indexOf('"', start));
+									latency.recordValue(Math.max(0, System.currentTimeMillis() - Instant.parse(createdAt).toEpochMilli()));
+									received++;
+								}
+							}
+						} catch (IOException e) {
+							failedSubscribers.incrementAndGet();
+						}
+						if (received == events) {
+							delivered.countDown();
+						}
+					});
+				}
+				while (meterRegistry.get(LiveFeed.SUBSCRIBERS_GAUGE).gauge().value() < subscribers) {
+					Thread.sleep(10);
+				}
+				int threadsSubscribed = ManagementFactory.getThreadMXBean().getThreadCount();
+
+				Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+				statistics.clear();
+				for (int i = 0; i < events; i++) {
+					PostCreateRequest post = new PostCreateRequest();
+					post.setUsername("broadcaster");
+					post.setContent("event " + i);
+					postService.createPost(post);
+					Thread.sleep(intervalMs);
+				}
+				boolean complete = delivered.await(60, TimeUnit.SECONDS);
+				long statements = statistics.getPrepareStatementCount();
+
+				System.out.printf("subscribers: %d, events: %d, complete: %s%n", subscribers, events, complete);
+				System.out.printf("delivery ms: p50 %d, p99 %d, max %d%n", latency.getValueAtPercentile(50),
+						latency.getValueAtPercentile(99), latency.getMaxValue());
+				System.out.printf("platform threads: %d before, %d with all subscribed%n", threadsBefore, threadsSubscribed);
+				System.out.printf("SQL statements per event: %.1f%n", (double) statements / events);
+
+				assertThat(complete).isTrue();
+				assertThat(failedSubscribers.get()).isZero();
+				assertThat(latency.getTotalCount()).isEqualTo((long) subscribers * events);
+				assertThat(meterRegistry.counter(LiveFeed.OVERFLOWS_COUNTER).count()).isZero();
+				assertThat(threadsSubscribed - threadsBefore).isLessThan(subscribers / 10);
+				assertThat(statements).isLessThanOrEqualTo(events * 2L);
+			} finally {
+				for (Socket socket : connections) {
+					socket.close();
+				}
+			}
+		}
+	}
+}
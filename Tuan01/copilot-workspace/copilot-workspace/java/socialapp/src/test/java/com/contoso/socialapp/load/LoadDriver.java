@@ -0,0 +1,150 @@
+package com.contoso.socialapp.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load driver: each virtual user runs on its own virtual thread and issues requests back to back,
+ * picking the operation from a weighted mix and the target post from the graph's Zipf popularity.
+ * Latencies are recorded per operation in HDR histograms (microseconds).
+ */
+final class LoadDriver {
+
+    enum Operation {
+        FEED, READ_POST, LIKE, COMMENT
+    }
+
+    record Mix(int feed, int readPost, int like, int comment) {
+        Operation pick(Random random) {
+            int roll = random.nextInt(feed + readPost + like + comment);
+            if ((roll -= feed) < 0) {
+                return Operation.FEED;
+            }
+            if ((roll -= readPost) < 0) {
+                return Operation.READ_POST;
+            }
+            return roll < like ? Operation.LIKE : Operation.COMMENT;
+        }
+    }
+
+    private final String baseUrl;
+    private final SocialGraphGenerator.SocialGraph graph;
+    private final HttpClient client;
+
+    LoadDriver(String baseUrl, SocialGraphGenerator.SocialGraph graph) {
+        this.baseUrl = baseUrl;
+        this.graph = graph;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    Report run(Mix mix, int virtualUsers, Duration duration, long seed) throws InterruptedException {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            errors.put(operation, new LongAdder());
+        }
+
+        AtomicInteger userSeed = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < virtualUsers; u++) {
+                users.execute(() -> {
+                    Random random = new Random(seed + userSeed.incrementAndGet());
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = mix.pick(random);
+                        HttpRequest request = request(operation, random);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.get(operation).increment();
+                            }
+                        } catch (Exception e) {
+                            errors.get(operation).increment();
+                        }
+                        latencies.get(operation).recordValue(
+                                Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent), TimeUnit.MINUTES.toMicros(1)));
+                    }
+                });
+            }
+        }
+        return new Report(latencies, errors, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private HttpRequest request(Operation operation, Random random) {
+        String postId = graph.postIds().get(graph.popularity().sample(random));
+        String username = graph.usernames().get(random.nextInt(graph.usernames().size()));
+        return switch (operation) {
+            case FEED -> get("/posts?limit=20");
+            case READ_POST -> get("/posts/" + postId);
+            case LIKE -> post("/posts/" + postId + "/likes", "{\"username\":\"" + username + "\"}");
+            case COMMENT -> post("/posts/" + postId + "/comments",
+                    "{\"username\":\"" + username + "\",\"content\":\"load test comment\"}");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    record Report(Map<Operation, Histogram> latencies, Map<Operation, LongAdder> errors, Duration elapsed) {
+
+        long requests(Operation operation) {
+            return latencies.get(operation).getTotalCount();
+        }
+
+        Histogram total() {
+            Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        void print(PrintStream out) {
+            double seconds = elapsed.toNanos() / 1e9;
+            out.printf("%-10s %9s %9s %8s %9s %9s %9s %9s%n",
+                    "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            long total = 0;
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                total += histogram.getTotalCount();
+                out.printf("%-10s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                        operation, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                        errors.get(operation).sum(),
+                        histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0);
+            }
+            out.printf("%-10s %9d %9.1f%n", "total", total, total / seconds);
+        }
+    }
+}
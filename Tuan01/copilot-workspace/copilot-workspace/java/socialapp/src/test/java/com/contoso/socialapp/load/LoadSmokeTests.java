@@ -0,0 +1,96 @@
+package com.contoso.socialapp.load;
+
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.CounterReconciliationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the running application over HTTP with a synthetic social graph, using the prod datasource setup
+ * (concurrent writers on the default single pool hit SQLITE_BUSY). The smoke test runs with the regular suite; the
+ * full run is tagged "load" and sized through -Dload.* system properties (e.g. ./gradlew loadTest -Dload.users=1000
+ * -Dload.posts=50000 -Dload.seconds=60).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:sqlite:build/sns_api-test-load.db?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+		"socialapp.datasource.reader.jdbc-url=jdbc:sqlite:build/sns_api-test-load.db?open_mode=1&busy_timeout=5000"
+})
+@ActiveProfiles({"test", "prod"})
+class LoadSmokeTests {
+
+	private static final long SEED = 42;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private CounterReconciliationService counterReconciliationService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void mixedTrafficCompletesWithoutErrors() throws InterruptedException {
+		LoadDriver.Report report = run(50, 500, 2_000, 200, new LoadDriver.Mix(50, 30, 15, 5), 16, Duration.ofSeconds(3));
+
+		assertThat(report.errorCount()).isZero();
+		for (LoadDriver.Operation operation : LoadDriver.Operation.values()) {
+			assertThat(report.requests(operation)).as(operation.name()).isPositive();
+		}
+	}
+
+	@Test
+	@Tag("load")
+	void fullLoad() throws InterruptedException {
+		LoadDriver.Report report = run(
+				Integer.getInteger("load.users", 1_000),
+				Integer.getInteger("load.posts", 20_000),
+				Integer.getInteger("load.likes", 200_000),
+				Integer.getInteger("load.comments", 20_000),
+				new LoadDriver.Mix(
+						Integer.getInteger("load.mix.feed", 50),
+						Integer.getInteger("load.mix.read", 30),
+						Integer.getInteger("load.mix.like", 15),
+						Integer.getInteger("load.mix.comment", 5)),
+				Integer.getInteger("load.virtualUsers", 200),
+				Duration.ofSeconds(Integer.getInteger("load.seconds", 30)));
+
+		assertThat(report.errorCount()).isZero();
+	}
+
+	private LoadDriver.Report run(int users, int posts, int likes, int comments, LoadDriver.Mix mix,
+								  int virtualUsers, Duration duration) throws InterruptedException {
+		SocialGraphGenerator generator = new SocialGraphGenerator(postRepository, commentRepository, likeRepository,
+				counterReconciliationService, new TransactionTemplate(transactionManager));
+		long seeding = System.nanoTime();
+		SocialGraphGenerator.SocialGraph graph = generator.generate(users, posts, likes, comments, 1.1, SEED);
+		System.out.printf("Seeded %d users, %d posts, %d likes, %d comments in %d ms%n", users, posts, likes, comments,
+				Duration.ofNanos(System.nanoTime() - seeding).toMillis());
+
+		LoadDriver driver = new LoadDriver("http://localhost:" + port + "/api", graph);
+		LoadDriver.Report report = driver.run(mix, virtualUsers, duration, SEED);
+		report.print(System.out);
+		return report;
+	}
+}
@@ -0,0 +1,102 @@
+package com.contoso.socialapp.load;
+
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.CounterReconciliationService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a synthetic social graph: users author posts uniformly, while likes and comments follow a Zipf
+ * distribution over posts so that a handful of posts are "viral". Deterministic for a given seed.
+ */
+final class SocialGraphGenerator {
+
+    private static final int CHUNK = 1_000;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final CounterReconciliationService counterReconciliationService;
+    private final TransactionTemplate transaction;
+
+    SocialGraphGenerator(PostRepository postRepository, CommentRepository commentRepository,
+                         LikeRepository likeRepository, CounterReconciliationService counterReconciliationService,
+                         TransactionTemplate transaction) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeRepository = likeRepository;
+        this.counterReconciliationService = counterReconciliationService;
+        this.transaction = transaction;
+    }
+
+    SocialGraph generate(int users, int posts, int likes, int comments, double zipfExponent, long seed) {
+        Random random = new Random(seed);
+        List<String> usernames = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            usernames.add("user" + i);
+        }
+
+        List<String> postIds = new ArrayList<>(posts);
+        inChunks(posts, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Post post = postRepository.save(Post.builder()
+                        .username(usernames.get(random.nextInt(users)))
+                        .content("Synthetic post " + i)
+                        .build());
+                postIds.add(post.getId());
+            }
+        });
+
+        ZipfSampler popularity = new ZipfSampler(posts, zipfExponent);
+        Set<String> likedPairs = new HashSet<>();
+        inChunks(likes, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                String postId = postIds.get(popularity.sample(random));
+                String username = usernames.get(random.nextInt(users));
+                if (likedPairs.add(postId + '|' + username)) {
+                    likeRepository.save(Like.builder().postId(postId).username(username).build());
+                }
+            }
+        });
+
+        inChunks(comments, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                commentRepository.save(Comment.builder()
+                        .postId(postIds.get(popularity.sample(random)))
+                        .username(usernames.get(random.nextInt(users)))
+                        .content("Synthetic comment " + i)
+                        .build());
+            }
+        });
+
+        // Rows were written directly, so bring the denormalized counters in line
+        counterReconciliationService.reconcile();
+        return new SocialGraph(usernames, postIds, popularity);
+    }
+
+    private void inChunks(int count, ChunkWriter writer) {
+        for (int from = 0; from < count; from += CHUNK) {
+            int start = from;
+            int end = Math.min(count, from + CHUNK);
+            transaction.executeWithoutResult(status -> writer.write(start, end));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(int from, int to);
+    }
+
+    record SocialGraph(List<String> usernames, List<String> postIds, ZipfSampler popularity) {
+    }
+}
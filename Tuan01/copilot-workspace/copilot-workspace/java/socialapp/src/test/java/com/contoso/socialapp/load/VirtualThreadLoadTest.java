@@ -0,0 +1,131 @@
+package com.contoso.socialapp.load;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.CounterReconciliationService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.consumer.RecordingStream;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the same traffic against the prod datasource setup with Tomcat on its platform thread pool and on virtual
+ * threads, printing the maximum number of requests in flight inside the server and the latency percentiles of each run.
+ * Virtual-thread pinning is recorded through JFR for the duration of the virtual run.
+ * Run with {@code ./gradlew loadTest}; sized through -Dload.* system properties like {@link LoadSmokeTests}.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+	private static final long SEED = 42;
+
+	private final int platformThreads = Integer.getInteger("load.platformThreads", 20);
+	private final int virtualUsers = Integer.getInteger("load.virtualUsers", 200);
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("load.seconds", 10));
+	private final LoadDriver.Mix mix = new LoadDriver.Mix(50, 30, 15, 5);
+
+	@Test
+	void virtualThreadsLiftTheInFlightCapWithoutPinning() throws InterruptedException {
+		Result platform = run(false);
+
+		Result virtual;
+		LongAdder pinned = new LongAdder();
+		try (RecordingStream recording = new RecordingStream()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+			recording.onEvent("jdk.VirtualThreadPinned", event -> {
+				pinned.increment();
+				System.out.println(event);
+			});
+			recording.startAsync();
+			virtual = run(true);
+		}
+
+		System.out.printf("%-9s %12s %9s %9s %9s%n", "threads", "max inflight", "req/s", "p99 ms", "max ms");
+		platform.print("platform");
+		virtual.print("virtual");
+		System.out.printf("pinned virtual threads: %d%n", pinned.sum());
+
+		assertThat(platform.report.errorCount()).isZero();
+		assertThat(virtual.report.errorCount()).isZero();
+		assertThat(platform.maxInFlight).isLessThanOrEqualTo(platformThreads);
+		assertThat(virtual.maxInFlight).isGreaterThan(platformThreads);
+		assertThat(pinned.sum()).isZero();
+	}
+
+	private Result run(boolean virtualThreads) throws InterruptedException {
+		String database = "build/sns_api-test-vt-" + (virtualThreads ? "virtual" : "platform") + ".db";
+		InFlightFilter inFlight = new InFlightFilter();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SocialappApplication.class)
+				.profiles("test", "prod")
+				.initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+						.registerBean("inFlightFilter", FilterRegistrationBean.class, () -> new FilterRegistrationBean<>(inFlight)))
+				.run("--server.port=0",
+						"--spring.threads.virtual.enabled=" + virtualThreads,
+						"--server.tomcat.threads.max=" + platformThreads,
+						"--spring.datasource.url=jdbc:sqlite:" + database + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+						"--socialapp.datasource.reader.jdbc-url=jdbc:sqlite:" + database + "?open_mode=1&busy_timeout=5000")) {
+			SocialGraphGenerator generator = new SocialGraphGenerator(context.getBean(PostRepository.class),
+					context.getBean(CommentRepository.class), context.getBean(LikeRepository.class),
+					context.getBean(CounterReconciliationService.class),
+					new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+			SocialGraphGenerator.SocialGraph graph = generator.generate(
+					Integer.getInteger("load.users", 200),
+					Integer.getInteger("load.posts", 5_000),
+					Integer.getInteger("load.likes", 20_000),
+					Integer.getInteger("load.comments", 2_000), 1.1, SEED);
+
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			LoadDriver.Report report = new LoadDriver("http://localhost:" + port + "/api", graph)
+					.run(mix, virtualUsers, duration, SEED);
+			return new Result(report, inFlight.max.get());
+		}
+	}
+
+	private record Result(LoadDriver.Report report, int maxInFlight) {
+
+		void print(String label) {
+			Histogram all = report.total();
+			System.out.printf("%-9s %12d %9.1f %9.2f %9.2f%n", label, maxInFlight,
+					all.getTotalCount() / (report.elapsed().toNanos() / 1e9),
+					all.getValueAtPercentile(99) / 1000.0, all.getMaxValue() / 1000.0);
+		}
+	}
+
+	private static final class InFlightFilter extends OncePerRequestFilter {
+
+		private final AtomicInteger current = new AtomicInteger();
+		private final AtomicInteger max = new AtomicInteger();
+
+		@Override
+		protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+				throws ServletException, IOException {
+			max.accumulateAndGet(current.incrementAndGet(), Math::max);
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				current.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.contoso.socialapp.repository;
+
+import com.contoso.socialapp.service.TrendingService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query method declared on the repositories and checks SQLite's plan for each statement Hibernate sends:
+ * no full table scan and no sort in a temporary b-tree. A full pass in index order (the export cursors) is fine.
+ * The queries the services send through JdbcTemplate over likes and comments are checked the same way.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.contoso.socialapp.repository.RepositoryQueryPlanTests$RecordingInspector")
+@ActiveProfiles("test")
+class RepositoryQueryPlanTests {
+
+	private static final List<Class<?>> REPOSITORIES =
+			List.of(PostRepository.class, CommentRepository.class, LikeRepository.class);
+
+	private static final List<String> JDBC_QUERIES =
+			List.of(TrendingService.LIKES_SINCE, TrendingService.COMMENTS_SINCE);
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void everyRepositoryQueryIsServedByAnIndex() {
+		Map<String, List<String>> plans = new TreeMap<>();
+		for (Class<?> repository : REPOSITORIES) {
+			Object bean = applicationContext.getBean(repository);
+			for (Method method : repository.getDeclaredMethods()) {
+				List<String> statements = run(bean, method);
+				assertThat(statements).as(method.toString()).isNotEmpty();
+				for (String sql : statements) {
+					plans.put(repository.getSimpleName() + "." + method.getName() + ": " + sql, plan(sql));
+				}
+			}
+		}
+
+		Map<String, List<String>> unindexed = new TreeMap<>();
+		plans.forEach((statement, plan) -> {
+			if (!indexed(plan)) {
+				unindexed.put(statement, plan);
+			}
+		});
+		assertThat(plans).hasSizeGreaterThanOrEqualTo(REPOSITORIES.size());
+		assertThat(unindexed).isEmpty();
+
+		// The check itself: content has no index, and ordering by it needs a sort
+		assertThat(indexed(plan("SELECT id FROM posts WHERE content = ?"))).isFalse();
+		assertThat(indexed(plan("SELECT id FROM posts WHERE username = ? ORDER BY content"))).isFalse();
+	}
+
+	@Test
+	void everyJdbcQueryIsServedByAnIndex() {
+		Map<String, List<String>> unindexed = new TreeMap<>();
+		for (String sql : JDBC_QUERIES) {
+			List<String> plan = plan(sql);
+			if (!indexed(plan)) {
+				unindexed.put(sql, plan);
+			}
+		}
+		assertThat(unindexed).isEmpty();
+	}
+
+	private static boolean indexed(List<String> plan) {
+		return plan.stream().noneMatch(step -> step.matches("SCAN \\S+") || step.startsWith("USE TEMP B-TREE"));
+	}
+
+	// Rolled back, so the @Modifying queries leave nothing behind
+	private List<String> run(Object bean, Method method) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			status.setRollbackOnly();
+			RecordingInspector.STATEMENTS.clear();
+			try {
+				Object result = method.invoke(bean, arguments(method));
+				if (result instanceof Stream<?> stream) {
+					try (stream) {
+						stream.forEach(row -> {
+						});
+					}
+				}
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException(method.toString(), e);
+			}
+			return List.copyOf(RecordingInspector.STATEMENTS);
+		});
+	}
+
+	private static Object[] arguments(Method method) {
+		List<Object> arguments = new ArrayList<>();
+		for (Class<?> type : method.getParameterTypes()) {
+			if (type == String.class) {
+				arguments.add("x");
+			} else if (type == long.class || type == Long.class) {
+				arguments.add(1L);
+			} else if (type == int.class || type == Integer.class) {
+				arguments.add(1);
+			} else if (type == Pageable.class) {
+				arguments.add(PageRequest.of(0, 10));
+			} else if (Collection.class.isAssignableFrom(type)) {
+				arguments.add(List.of("x", "y"));
+			} else {
+				throw new IllegalArgumentException("No sample argument for " + type + " in " + method);
+			}
+		}
+		return arguments.toArray();
+	}
+
+	// Parameters are left unbound; SQLite plans them as NULL, which does not change the access path
+	private List<String> plan(String sql) {
+		return jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail"));
+	}
+
+	public static class RecordingInspector implements StatementInspector {
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
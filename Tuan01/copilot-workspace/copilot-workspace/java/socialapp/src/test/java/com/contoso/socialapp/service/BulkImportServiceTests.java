@@ -0,0 +1,109 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.BulkImportResponse;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "socialapp.import.chunk-size=3")
+@ActiveProfiles("test")
+class BulkImportServiceTests {
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void validRecordsAreImportedAndInvalidOnesReportedByLine() throws IOException {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("existing");
+		create.setContent("already here");
+		PostResponse existing = postService.createPost(create);
+		LikeRequest like = new LikeRequest();
+		like.setUsername("fan");
+		likeService.likePost(existing.getId(), like);
+
+		String imported = "legacy-" + UUID.randomUUID();
+		String ndjson = String.join("\n",
+				"{\"type\":\"post\",\"id\":\"" + imported + "\",\"username\":\"alice\",\"content\":\"hello\",\"createdAt\":\"2020-01-02T03:04:05.678Z\"}",
+				"{\"type\":\"comment\",\"postId\":\"" + imported + "\",\"username\":\"bob\",\"content\":\"first\"}",
+				"{\"type\":\"like\",\"postId\":\"" + imported + "\",\"username\":\"bob\"}",
+				"",
+				"{\"type\":\"like\",\"postId\":\"" + existing.getId() + "\",\"username\":\"fan\"}",
+				"{\"type\":\"like\",\"postId\":\"" + existing.getId() + "\",\"username\":\"carol\"}",
+				"{\"type\":\"comment\",\"postId\":\"missing\",\"username\":\"bob\",\"content\":\"orphan\"}",
+				"{\"type\":\"post\",\"username\":\"dave\"}",
+				"not json",
+				"{\"type\":\"comment\",\"postId\":\"" + existing.getId() + "\",\"username\":\"erin\",\"content\":\"late\"}");
+
+		BulkImportResponse result = bulkImportService.importNdjson(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(result.getReceived()).isEqualTo(9);
+		assertThat(result.getImported()).isEqualTo(5);
+		assertThat(result.getFailed()).isEqualTo(4);
+		assertThat(result.getErrors()).extracting(BulkImportResponse.RecordError::getLine).containsExactly(5L, 7L, 8L, 9L);
+		assertThat(result.getErrors().get(1).getMessage()).contains("not found");
+		assertThat(result.getErrors().get(2).getMessage()).isEqualTo("content is required");
+
+		PostResponse post = postService.getPostById(imported);
+		assertThat(post.getCreatedAt()).isEqualTo("2020-01-02T03:04:05.678Z");
+		assertThat(post.getLikesCount()).isEqualTo(1);
+		assertThat(post.getCommentsCount()).isEqualTo(1);
+		PostResponse updated = postService.getPostById(existing.getId());
+		assertThat(updated.getLikesCount()).isEqualTo(2);
+		assertThat(updated.getCommentsCount()).isEqualTo(1);
+	}
+
+	@Test
+	void insertsAreBatchedAcrossAChunk() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			ndjson.append("{\"type\":\"post\",\"username\":\"batch\",\"content\":\"post ").append(i).append("\"}\n");
+		}
+		statistics.clear();
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+		ResponseEntity<BulkImportResponse> response = restTemplate.postForEntity("/admin/import",
+				new HttpEntity<>(ndjson.toString(), headers), BulkImportResponse.class);
+
+		assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+		assertThat(response.getBody().getImported()).isEqualTo(30);
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(30);
+		// One batched INSERT per chunk of three
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(10);
+	}
+}
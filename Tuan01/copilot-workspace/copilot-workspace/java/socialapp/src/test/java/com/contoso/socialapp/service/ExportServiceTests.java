@@ -0,0 +1,123 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ExportServiceTests {
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void everyPostIsWrittenOnceWithItsOwnCommentsAndLikes() throws IOException {
+		String author = "exporter-" + UUID.randomUUID();
+		PostResponse busy = createPost(author, "busy");
+		PostResponse quiet = createPost(author, "quiet");
+		for (int i = 0; i < 3; i++) {
+			CommentCreateRequest comment = new CommentCreateRequest();
+			comment.setUsername("commenter" + i);
+			comment.setContent("reply " + i);
+			commentService.createComment(busy.getId(), comment);
+			LikeRequest like = new LikeRequest();
+			like.setUsername("fan" + i);
+			likeService.likePost(busy.getId(), like);
+		}
+		// Children of a deleted post must not be attached to a neighbour
+		jdbcTemplate.update("INSERT INTO comments (id, post_id, username, content, created_at) VALUES (?, ?, 'ghost', 'orphan', 0)",
+				UUID.randomUUID().toString(), busy.getId() + "0");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportNdjson(out);
+		Map<String, JsonNode> exported = byId(out.toString(StandardCharsets.UTF_8));
+
+		assertThat(exported).hasSize(jdbcTemplate.queryForObject("SELECT count(*) FROM posts", Integer.class));
+		JsonNode busyLine = exported.get(busy.getId());
+		assertThat(busyLine.get("username").asText()).isEqualTo(author);
+		assertThat(busyLine.get("createdAt").asText()).isEqualTo(busy.getCreatedAt());
+		assertThat(busyLine.get("commentsCount").asInt()).isEqualTo(3);
+		assertThat(busyLine.get("comments")).extracting(c -> c.get("content").asText())
+				.containsExactly("reply 0", "reply 1", "reply 2");
+		assertThat(busyLine.get("likes")).extracting(l -> l.get("username").asText())
+				.containsExactly("fan0", "fan1", "fan2");
+		assertThat(exported.get(quiet.getId()).get("comments")).isEmpty();
+		assertThat(exported.get(quiet.getId()).get("likes")).isEmpty();
+	}
+
+	@Test
+	void exportIsGzippedWhenTheClientAcceptsIt() throws IOException {
+		PostResponse post = createPost("zipper", "compressed");
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		ResponseEntity<byte[]> response = restTemplate.exchange("/admin/export", HttpMethod.GET,
+				new HttpEntity<>(headers), byte[].class);
+
+		assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+			Map<String, JsonNode> exported = byId(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+			assertThat(exported.get(post.getId()).get("content").asText()).isEqualTo("compressed");
+		}
+	}
+
+	private PostResponse createPost(String username, String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return postService.createPost(request);
+	}
+
+	private Map<String, JsonNode> byId(String ndjson) throws IOException {
+		Map<String, JsonNode> posts = new HashMap<>();
+		for (String line : ndjson.split("\n")) {
+			JsonNode post = objectMapper.readTree(line);
+			assertThat(posts.put(post.get("id").asText(), post)).isNull();
+		}
+		return posts;
+	}
+}
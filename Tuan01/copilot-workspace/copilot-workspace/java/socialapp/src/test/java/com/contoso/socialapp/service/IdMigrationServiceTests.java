@@ -0,0 +1,104 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.IdMigrationResponse;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "socialapp.ids.migration-batch-size=2")
+@ActiveProfiles("test")
+class IdMigrationServiceTests {
+
+	@Autowired
+	private IdMigrationService idMigrationService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void legacyUuidRowsAreRekeyedInCreationOrderWithReferencesFollowing() {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("new style");
+		PostResponse current = postService.createPost(create);
+		assertThat(current.getId()).hasSize(SnowflakeIdGenerator.LENGTH);
+
+		long base = System.currentTimeMillis() - 60_000;
+		String[] legacyPosts = new String[5];
+		for (int i = 0; i < legacyPosts.length; i++) {
+			legacyPosts[i] = UUID.randomUUID().toString();
+			jdbcTemplate.update("INSERT INTO posts (id, username, content, created_at, like_count, comment_count) "
+					+ "VALUES (?, 'legacy', 'old', ?, 1, 1)", legacyPosts[i], base + i / 2);
+			jdbcTemplate.update("INSERT INTO comments (id, post_id, username, content, created_at) VALUES (?, ?, 'c', 'hi', ?)",
+					UUID.randomUUID().toString(), legacyPosts[i], base + 10 + i);
+			jdbcTemplate.update("INSERT INTO likes (post_id, username, created_at) VALUES (?, 'fan', ?)",
+					legacyPosts[i], base + 20);
+		}
+
+		IdMigrationResponse result = idMigrationService.migrate();
+
+		assertThat(result.getPostsMigrated()).isEqualTo(5);
+		assertThat(result.getCommentsMigrated()).isEqualTo(5);
+		List<String> rekeyed = jdbcTemplate.queryForList(
+				"SELECT id FROM posts WHERE username = 'legacy' ORDER BY created_at, id", String.class);
+		assertThat(rekeyed).hasSize(5).isSorted()
+				.allSatisfy(id -> assertThat(id).hasSize(SnowflakeIdGenerator.LENGTH));
+		assertThat(SnowflakeIdGenerator.timestampOf(rekeyed.get(0))).isEqualTo(base);
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM posts WHERE id IN (?, ?, ?, ?, ?)", Integer.class,
+				(Object[]) legacyPosts)).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM comments c JOIN posts p ON p.id = c.post_id WHERE p.username = 'legacy' AND length(c.id) = 13",
+				Integer.class)).isEqualTo(5);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM likes l JOIN posts p ON p.id = l.post_id WHERE p.username = 'legacy'",
+				Integer.class)).isEqualTo(5);
+		assertThat(postService.getPostById(current.getId()).getId()).isEqualTo(current.getId());
+
+		assertThat(idMigrationService.migrate().getPostsMigrated()).isZero();
+	}
+
+	@Test
+	void rerunAfterAnInterruptedRunSkipsIdsAlreadyIssuedAndKeepsTrendingScores() {
+		long base = System.currentTimeMillis() - 120_000;
+		// What a run interrupted after the first of two posts created in the same millisecond leaves behind: a
+		// fresh generator hands the second one the id the first already got
+		String rekeyed = new SnowflakeIdGenerator(0).nextId(base);
+		String legacy = "ffffffff-ffff-4fff-bfff-ffffffffffff";
+		for (String id : List.of(rekeyed, legacy)) {
+			jdbcTemplate.update("INSERT INTO posts (id, username, content, created_at, like_count, comment_count) "
+					+ "VALUES (?, 'interrupted', 'old', ?, 1, 0)", id, base);
+		}
+		jdbcTemplate.update("INSERT INTO likes (post_id, username, created_at) VALUES (?, 'fan', ?)",
+				legacy, System.currentTimeMillis());
+		trendingService.rebuild();
+		trendingService.snapshot();
+
+		assertThat(idMigrationService.migrate().getPostsMigrated()).isEqualTo(1);
+
+		List<String> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM posts WHERE username = 'interrupted' ORDER BY id", String.class);
+		assertThat(ids).hasSize(2).doesNotContain(legacy).startsWith(rekeyed);
+		String migrated = ids.get(1);
+		assertThat(SnowflakeIdGenerator.timestampOf(migrated)).isEqualTo(base);
+		assertThat(jdbcTemplate.queryForList("SELECT post_id FROM trending_scores", String.class))
+				.contains(migrated).doesNotContain(legacy);
+		assertThat(trendingService.getTrending(100)).extracting(trending -> trending.getPost().getId())
+				.contains(migrated);
+	}
+}
@@ -0,0 +1,72 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.LikeResponse;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LikeServiceTests {
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void likesAndUnlikesAreIdempotentAndCostTwoStatementsEach() throws InterruptedException {
+		String postId = createPost();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		LikeResponse first = likeService.likePost(postId, like("fan"));
+		// The insert, which also checks the post exists, and the counter update
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+		Thread.sleep(5);
+		statistics.clear();
+		LikeResponse again = likeService.likePost(postId, like("fan"));
+		// The skipped insert and the read of the stored like
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(again).isEqualTo(first);
+
+		statistics.clear();
+		likeService.unlikePost(postId, like("fan"));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		likeService.unlikePost(postId, like("fan"));
+		assertThat(postService.getPostById(postId).getLikesCount()).isZero();
+
+		assertThatThrownBy(() -> likeService.likePost("missing", like("fan")))
+				.isInstanceOf(ResourceNotFoundException.class);
+		assertThatThrownBy(() -> likeService.unlikePost("missing", like("fan")))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private String createPost() {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("author");
+		request.setContent("liked once");
+		return postService.createPost(request).getId();
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
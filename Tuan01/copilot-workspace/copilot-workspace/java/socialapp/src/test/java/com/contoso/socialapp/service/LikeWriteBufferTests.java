@@ -0,0 +1,169 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.LikeResponse;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.Timestamps;
+import com.contoso.socialapp.repository.LikeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:build/sns_api-test-write-behind.db",
+		"socialapp.likes.write-behind.enabled=true",
+		"socialapp.likes.write-behind.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class LikeWriteBufferTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private LikeWriteBuffer likeWriteBuffer;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void burstsCollapseToTheirNetEffectOnFlush() {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("viral");
+		String postId = postService.createPost(create).getId();
+
+		LikeResponse response = likeService.likePost(postId, likeRequest("a"));
+		assertThat(response.getPostId()).isEqualTo(postId);
+		assertThat(response.getCreatedAt()).isNotNull();
+		likeService.unlikePost(postId, likeRequest("a"));
+		likeService.likePost(postId, likeRequest("a"));
+		likeService.likePost(postId, likeRequest("b"));
+		likeService.likePost(postId, likeRequest("c"));
+		likeService.unlikePost(postId, likeRequest("c"));
+
+		assertThat(likeWriteBuffer.pendingCount()).isEqualTo(3);
+		assertThat(likeCount(postId, "a")).isZero();
+		assertThat(likeCount(postId, "b")).isZero();
+
+		likeWriteBuffer.flush();
+
+		assertThat(likeWriteBuffer.pendingCount()).isZero();
+		assertThat(likeCount(postId, "a")).isOne();
+		assertThat(likeCount(postId, "b")).isOne();
+		assertThat(likeCount(postId, "c")).isZero();
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(2);
+
+		// Re-liking an existing pair is a no-op for both the row and the counter, and answers with the stored time
+		LikeResponse again = likeService.likePost(postId, likeRequest("a"));
+		assertThat(again.getCreatedAt())
+				.isEqualTo(Timestamps.format(likeRepository.findCreatedAt(postId, "a").orElseThrow()));
+		likeService.unlikePost(postId, likeRequest("b"));
+		likeWriteBuffer.flush();
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(1);
+	}
+
+	@Test
+	void operationsAreRefusedOnceStopHasBegun() throws InterruptedException {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("shutting down");
+		String postId = postService.createPost(create).getId();
+		LikeWriteBuffer buffer = new LikeWriteBuffer(jdbcTemplate, transactionManager, cacheManager, eventPublisher);
+		ReflectionTestUtils.setField(buffer, "enabled", true);
+		ReflectionTestUtils.setField(buffer, "batchSize", 1);
+		ReflectionTestUtils.setField(buffer, "flushIntervalMs", 3_600_000L);
+		buffer.start();
+
+		assertThat(buffer.like(postId, "before", System.currentTimeMillis())).isTrue();
+		buffer.stop();
+
+		assertThat(likeCount(postId, "before")).isOne();
+		assertThat(buffer.like(postId, "after", System.currentTimeMillis())).isFalse();
+		assertThat(buffer.unlike(postId, "before")).isFalse();
+		assertThat(buffer.pendingCount()).isZero();
+	}
+
+	@Test
+	void failedFlushKeepsItsOperationsUnlessSuperseded() throws InterruptedException {
+		PostCreateRequest create = new PostCreateRequest();
+		create.setUsername("author");
+		create.setContent("locked out");
+		String postId = postService.createPost(create).getId();
+		AtomicReference<LikeWriteBuffer> buffer = new AtomicReference<>();
+		JdbcTemplate failingOnce = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+			private boolean failed;
+
+			@Override
+			public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+					ParameterizedPreparedStatementSetter<T> pss) {
+				if (!failed) {
+					failed = true;
+					// Arrives while the failing flush is in progress
+					buffer.get().unlike(postId, "b");
+					throw new TransientDataAccessResourceException("database is locked");
+				}
+				return super.batchUpdate(sql, batchArgs, batchSize, pss);
+			}
+		};
+		buffer.set(new LikeWriteBuffer(failingOnce, transactionManager, cacheManager, eventPublisher));
+		ReflectionTestUtils.setField(buffer.get(), "enabled", true);
+		ReflectionTestUtils.setField(buffer.get(), "batchSize", 100);
+		ReflectionTestUtils.setField(buffer.get(), "flushIntervalMs", 3_600_000L);
+		buffer.get().start();
+		buffer.get().like(postId, "a", System.currentTimeMillis());
+		buffer.get().like(postId, "b", System.currentTimeMillis());
+
+		assertThatThrownBy(buffer.get()::flush).isInstanceOf(TransientDataAccessResourceException.class);
+		assertThat(buffer.get().pendingCount()).isEqualTo(2);
+		assertThat(likeCount(postId, "a")).isZero();
+
+		buffer.get().flush();
+
+		assertThat(buffer.get().pendingCount()).isZero();
+		assertThat(likeCount(postId, "a")).isOne();
+		assertThat(likeCount(postId, "b")).isZero();
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(1);
+		buffer.get().stop();
+	}
+
+	private int likeCount(String postId, String username) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes WHERE post_id = ? AND username = ?",
+				Integer.class, postId, username);
+	}
+
+	private static LikeRequest likeRequest(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
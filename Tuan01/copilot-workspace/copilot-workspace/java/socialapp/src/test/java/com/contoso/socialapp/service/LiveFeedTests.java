@@ -0,0 +1,132 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "socialapp.live.heartbeat-interval-ms=200")
+@ActiveProfiles("test")
+class LiveFeedTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private LiveFeed liveFeed;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void committedWritesAreStreamedInOrderAndRolledBackOnesAreNot() throws Exception {
+		PostResponse watched = createPost("watched");
+		int before = liveFeed.subscriberCount();
+		try (Stream<String> all = open("/api/events"); Stream<String> onePost = open("/api/events?postId=" + watched.getId())) {
+			await().atMost(5, TimeUnit.SECONDS).until(() -> liveFeed.subscriberCount() == before + 2);
+
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				createPost("rolled back");
+				status.setRollbackOnly();
+			});
+			PostResponse post = createPost("live");
+			commentService.createComment(post.getId(), comment("first!"));
+			likeService.likePost(post.getId(), like("fan"));
+			// A repeated like inserts nothing and is not announced
+			likeService.likePost(post.getId(), like("fan"));
+			commentService.createComment(watched.getId(), comment("on the watched post"));
+
+			assertThat(read(all.iterator(), 4)).containsExactly(
+					"post.created " + post.getId() + " live",
+					"comment.created " + post.getId() + " first!",
+					"like.created " + post.getId() + " fan",
+					"comment.created " + watched.getId() + " on the watched post");
+			assertThat(read(onePost.iterator(), 1)).containsExactly(
+					"comment.created " + watched.getId() + " on the watched post");
+		}
+		// Disconnects are noticed on the next keepalive
+		await().atMost(5, TimeUnit.SECONDS).until(() -> liveFeed.subscriberCount() == before);
+	}
+
+	private Stream<String> open(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept", "text/event-stream")
+				.build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(5, TimeUnit.SECONDS).body();
+	}
+
+	// Reduces each event to "type postId text", skipping keepalive comments
+	private List<String> read(Iterator<String> lines, int count) throws Exception {
+		List<String> events = new ArrayList<>();
+		String type = null;
+		while (events.size() < count && lines.hasNext()) {
+			String line = lines.next();
+			if (line.startsWith("event:")) {
+				type = line.substring("event:".length());
+			} else if (line.startsWith("data:")) {
+				JsonNode data = objectMapper.readTree(line.substring("data:".length()));
+				String postId = data.has("postId") ? data.get("postId").asText() : data.get("id").asText();
+				String text = data.has("content") ? data.get("content").asText() : data.get("username").asText();
+				events.add(type + " " + postId + " " + text);
+			}
+		}
+		return events;
+	}
+
+	private PostResponse createPost(String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("streamer");
+		request.setContent(content);
+		return postService.createPost(request);
+	}
+
+	private static CommentCreateRequest comment(String content) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername("replier");
+		request.setContent(content);
+		return request;
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
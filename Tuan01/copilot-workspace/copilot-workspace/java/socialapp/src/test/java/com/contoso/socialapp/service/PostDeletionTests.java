@@ -0,0 +1,173 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"socialapp.posts.purge.async-threshold=" + PostDeletionTests.THRESHOLD,
+		"socialapp.posts.purge.batch-size=7"
+})
+@ActiveProfiles("test")
+class PostDeletionTests {
+
+	static final int THRESHOLD = 20;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void postIsDeletedWithItsCommentsAndLikesInBulkStatements() {
+		String postId = createPost("small", THRESHOLD / 2, THRESHOLD / 2);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		postService.deletePost(postId);
+		// The post lookup, one delete each for comments and likes, and the post delete
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+		assertThat(children(postId)).isZero();
+		assertThat(tombstones(postId)).isZero();
+	}
+
+	@Test
+	void busyPostIsDeletedAtOnceAndPurgedInTheBackground() throws InterruptedException {
+		String postId = createPost("busy", 3 * THRESHOLD, 10);
+		String commentId = jdbcTemplate.queryForObject(
+				"SELECT id FROM comments WHERE post_id = ? LIMIT 1", String.class, postId);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// The purge starts after commit, so inside the deleting transaction the comments and likes are still there
+		// but no longer reachable. Rolled back afterwards
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			postService.deletePost(postId);
+			assertThat(tombstones(postId)).isOne();
+			assertThat(children(postId)).isEqualTo(3 * THRESHOLD + 10);
+
+			assertThatThrownBy(() -> commentService.getCommentById(postId, commentId))
+					.isInstanceOf(ResourceNotFoundException.class);
+			assertThat(commentService.getCommentsByUser("commenter-busy", null, 100).getItems()).isEmpty();
+			assertThatThrownBy(() -> likeService.likePost(postId, like("fan-0")))
+					.isInstanceOf(ResourceNotFoundException.class);
+			assertThatThrownBy(() -> likeService.unlikePost(postId, like("fan-1")))
+					.isInstanceOf(ResourceNotFoundException.class);
+			status.setRollbackOnly();
+		});
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(3 * THRESHOLD);
+
+		statistics.clear();
+		postService.deletePost(postId);
+		// The post lookup, the tombstone and the post delete
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThatThrownBy(() -> postService.getPostById(postId)).isInstanceOf(ResourceNotFoundException.class);
+		for (int i = 0; i < 100 && tombstones(postId) > 0; i++) {
+			Thread.sleep(50);
+		}
+		assertThat(tombstones(postId)).isZero();
+		assertThat(children(postId)).isZero();
+	}
+
+	@Test
+	void interruptedPurgeKeepsTheTombstoneAndResumes() {
+		String postId = createPost("interrupted", 3 * THRESHOLD, 3 * THRESHOLD);
+		jdbcTemplate.update("DELETE FROM posts WHERE id = ?", postId);
+		jdbcTemplate.update("INSERT INTO post_tombstones (post_id, deleted_at) VALUES (?, ?)",
+				postId, System.currentTimeMillis());
+
+		// Interrupted after its second batch of comments, as shutdown would
+		JdbcTemplate interrupting = new JdbcTemplate(dataSource) {
+			private int batches;
+
+			@Override
+			public int update(String sql, Object... args) {
+				int rows = super.update(sql, args);
+				if (sql.startsWith("DELETE FROM comments") && ++batches == 2) {
+					Thread.currentThread().interrupt();
+				}
+				return rows;
+			}
+		};
+		PostPurger purger = new PostPurger(interrupting);
+		ReflectionTestUtils.setField(purger, "batchSize", 7);
+		try {
+			purger.purge();
+		} finally {
+			Thread.interrupted();
+		}
+		assertThat(tombstones(postId)).isOne();
+		assertThat(children(postId)).isEqualTo(6 * THRESHOLD - 2 * 7);
+
+		purger.purge();
+		assertThat(tombstones(postId)).isZero();
+		assertThat(children(postId)).isZero();
+	}
+
+	private String createPost(String name, int likes, int comments) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("author");
+		request.setContent("deleted with " + likes + " likes and " + comments + " comments");
+		String postId = postService.createPost(request).getId();
+		for (int i = 0; i < likes; i++) {
+			likeService.likePost(postId, like("fan-" + i));
+		}
+		for (int i = 0; i < comments; i++) {
+			CommentCreateRequest comment = new CommentCreateRequest();
+			comment.setUsername("commenter-" + name);
+			comment.setContent("comment " + i);
+			commentService.createComment(postId, comment);
+		}
+		return postId;
+	}
+
+	private int children(String postId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT (SELECT count(*) FROM comments WHERE post_id = ?) + (SELECT count(*) FROM likes WHERE post_id = ?)",
+				Integer.class, postId, postId);
+	}
+
+	private int tombstones(String postId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM post_tombstones WHERE post_id = ?", Integer.class, postId);
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
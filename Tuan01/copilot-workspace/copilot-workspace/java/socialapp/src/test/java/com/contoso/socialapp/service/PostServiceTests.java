@@ -0,0 +1,197 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.PostUpdateRequest;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private CounterReconciliationService counterReconciliationService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private LikeRepository likeRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void feedIsServedByASingleStatementRegardlessOfPostCount() {
+		for (int i = 0; i < 20; i++) {
+			PostResponse post = postService.createPost(postCreate("author" + i, "post " + i));
+			likeService.likePost(post.getId(), likeRequest("fan"));
+			commentService.createComment(post.getId(), commentCreate("fan", "nice"));
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<PostResponse> feed = postService.getPosts(null, PostService.MAX_PAGE_SIZE).getItems();
+
+		assertThat(feed).hasSizeGreaterThanOrEqualTo(20);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		PostResponse first = feed.get(0);
+		assertThat(first.getLikesCount()).isEqualTo(1);
+		assertThat(first.getCommentsCount()).isEqualTo(1);
+	}
+
+	@Test
+	void feedPagesWalkEveryPostExactlyOnce() {
+		for (int i = 0; i < 7; i++) {
+			postRepository.save(Post.builder().username("pager").content("post " + i).build());
+		}
+		long total = postRepository.count();
+
+		Set<String> seen = new HashSet<>();
+		String cursor = null;
+		do {
+			CursorPage<PostResponse> page = postService.getPosts(cursor, 3);
+			assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+			page.getItems().forEach(post -> assertThat(seen.add(post.getId())).isTrue());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(seen).hasSize((int) total);
+	}
+
+	@Test
+	void readsProjectResponsesWithoutLoadingEntities() {
+		String postId = postService.createPost(postCreate("author", "projected")).getId();
+		for (int i = 0; i < 5; i++) {
+			commentService.createComment(postId, commentCreate("projector", "comment " + i));
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		assertThat(postService.getPostById(postId).getCommentsCount()).isEqualTo(5);
+		List<String> commentIds = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<CommentResponse> page = commentService.getCommentsByPostId(postId, cursor, 2);
+			page.getItems().forEach(comment -> commentIds.add(comment.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertThat(commentIds).hasSize(5).doesNotHaveDuplicates();
+		assertThat(commentService.getCommentById(postId, commentIds.get(0)).getContent()).isEqualTo("comment 0");
+		assertThat(commentService.getCommentsByUser("projector", null, 10).getItems()).hasSize(5);
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void countersFollowWritesAndReconciliationRepairsDrift() {
+		String postId = postService.createPost(postCreate("author", "counted")).getId();
+		likeService.likePost(postId, likeRequest("a"));
+		likeService.likePost(postId, likeRequest("a"));
+		likeService.likePost(postId, likeRequest("b"));
+		likeService.unlikePost(postId, likeRequest("b"));
+		likeService.unlikePost(postId, likeRequest("nobody"));
+		String commentId = commentService.createComment(postId, commentCreate("a", "one")).getId();
+		commentService.createComment(postId, commentCreate("a", "two"));
+		commentService.deleteComment(postId, commentId);
+
+		PostResponse post = postService.getPostById(postId);
+		assertThat(post.getLikesCount()).isEqualTo(1);
+		assertThat(post.getCommentsCount()).isEqualTo(1);
+
+		// Rows written behind the services' back leave the counters stale until reconciliation runs
+		likeRepository.save(Like.builder().postId(postId).username("c").build());
+		commentRepository.save(Comment.builder().postId(postId).username("c").content("three").build());
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(1);
+
+		assertThat(counterReconciliationService.reconcile().getPostsCorrected()).isGreaterThanOrEqualTo(1);
+		post = postService.getPostById(postId);
+		assertThat(post.getLikesCount()).isEqualTo(2);
+		assertThat(post.getCommentsCount()).isEqualTo(2);
+	}
+
+	@Test
+	void editingAPostKeepsCountersWrittenSinceItWasLoaded() {
+		String postId = postService.createPost(postCreate("author", "before")).getId();
+		Post loaded = postRepository.findById(postId).orElseThrow();
+
+		likeService.likePost(postId, likeRequest("fan"));
+		commentService.createComment(postId, commentCreate("fan", "first"));
+		loaded.setContent("after");
+		postRepository.save(loaded);
+
+		PostResponse stored = postRepository.findResponseById(postId).orElseThrow();
+		assertThat(stored.getContent()).isEqualTo("after");
+		assertThat(stored.getLikesCount()).isEqualTo(1);
+		assertThat(stored.getCommentsCount()).isEqualTo(1);
+
+		likeService.likePost(postId, likeRequest("another fan"));
+		PostResponse updated = postService.updatePost(postId, postUpdate("author", "again"));
+		assertThat(updated.getLikesCount()).isEqualTo(2);
+		assertThat(updated.getCommentsCount()).isEqualTo(1);
+		assertThat(postService.getPostById(postId).getLikesCount()).isEqualTo(2);
+	}
+
+	private static PostCreateRequest postCreate(String username, String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return request;
+	}
+
+	private static PostUpdateRequest postUpdate(String username, String content) {
+		PostUpdateRequest request = new PostUpdateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return request;
+	}
+
+	private static CommentCreateRequest commentCreate(String username, String content) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return request;
+	}
+
+	private static LikeRequest likeRequest(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
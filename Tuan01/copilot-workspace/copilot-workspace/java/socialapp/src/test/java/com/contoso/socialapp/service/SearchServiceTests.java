@@ -0,0 +1,146 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.PostSearchResult;
+import com.contoso.socialapp.dto.PostUpdateRequest;
+import com.contoso.socialapp.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceTests {
+
+	@Autowired
+	private SearchService searchService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Test
+	void postsAreRankedByTheirBestMatchInTheirOwnTextOrTheirComments() {
+		String word = uniqueWord();
+		PostResponse repeated = createPost(word + " " + word + " " + word + " all day");
+		PostResponse once = createPost("a long post that mentions " + word + " only once among many other words");
+		PostResponse viaComment = createPost("nothing relevant here");
+		createComment(viaComment.getId(), "but this reply talks about <b>" + word + "</b>");
+		createPost("unrelated");
+
+		List<PostSearchResult> results = searchService.search(word, null, 10).getItems();
+
+		assertThat(results).extracting(result -> result.getPost().getId())
+				.containsExactly(repeated.getId(), once.getId(), viaComment.getId());
+		assertThat(results.get(1).getSnippet()).contains("<mark>" + word + "</mark>");
+		assertThat(results.get(1).getCommentId()).isNull();
+		assertThat(results.get(1).getPost().getContent()).isEqualTo(once.getContent());
+		assertThat(results.get(2).getCommentId()).isNotNull();
+		assertThat(results.get(2).getSnippet()).contains("&lt;b&gt;<mark>" + word + "</mark>&lt;/b&gt;");
+	}
+
+	@Test
+	void indexFollowsUpdatesAndDeletesAndMatchesWordForms() {
+		String word = uniqueWord();
+		PostResponse post = createPost("liked the " + word);
+		assertThat(ids(word + " liking")).containsExactly(post.getId());
+
+		PostUpdateRequest update = new PostUpdateRequest();
+		update.setUsername(post.getUsername());
+		update.setContent("edited away");
+		postService.updatePost(post.getId(), update);
+		assertThat(ids(word)).isEmpty();
+
+		PostResponse commented = createPost("plain");
+		createComment(commented.getId(), "mentions " + word);
+		assertThat(ids(word.substring(0, 6) + "*")).containsExactly(commented.getId());
+		postService.deletePost(commented.getId());
+		assertThat(ids(word)).isEmpty();
+	}
+
+	@Test
+	void pagesCoverEveryMatchOnceAndQuerySyntaxIsNotInterpreted() {
+		String word = uniqueWord();
+		List<String> created = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			created.add(createPost("entry " + i + " " + word).getId());
+		}
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPage<PostSearchResult> page = searchService.search("-\"" + word + "\" ^(:", cursor, 2);
+			page.getItems().forEach(result -> seen.add(result.getPost().getId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(seen).containsExactlyInAnyOrderElementsOf(created);
+		assertThatThrownBy(() -> searchService.search("*** ()", null, 10)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> searchService.search(word, "not-a-cursor", 10)).isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void commentsCrowdingOnePostDoNotHideOtherPostsFromLaterPages() {
+		String word = uniqueWord();
+		PostResponse crowded = createPost("popular");
+		for (int i = 0; i < 12; i++) {
+			createComment(crowded.getId(), word + " " + word + " " + word);
+		}
+		List<String> expected = new ArrayList<>(List.of(crowded.getId()));
+		for (int i = 0; i < 4; i++) {
+			PostResponse quiet = createPost("quiet " + i);
+			createComment(quiet.getId(), "a longer reply that mentions " + word + " once among other words " + i);
+			expected.add(quiet.getId());
+		}
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<PostSearchResult> page = searchService.search(word, cursor, 1);
+			page.getItems().forEach(result -> seen.add(result.getPost().getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(seen).hasSize(expected.size()).startsWith(crowded.getId())
+				.containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	private List<String> ids(String query) {
+		return searchService.search(query, null, 10).getItems().stream().map(result -> result.getPost().getId()).toList();
+	}
+
+	// A term no other test's data contains
+	private static String uniqueWord() {
+		return "w" + UUID.randomUUID().toString().replace("-", "");
+	}
+
+	private PostResponse createPost(String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("searcher");
+		request.setContent(content);
+		return postService.createPost(request);
+	}
+
+	private void createComment(String postId, String content) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername("replier");
+		request.setContent(content);
+		commentService.createComment(postId, request);
+	}
+}
@@ -0,0 +1,166 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.TrendingPostResponse;
+import com.contoso.socialapp.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+// Large enough that posts from other test classes sharing the database never crowd these out
+@SpringBootTest(properties = "socialapp.trending.size=" + TrendingServiceTests.SIZE)
+@ActiveProfiles("test")
+class TrendingServiceTests {
+
+	static final int SIZE = 100_000;
+
+	private static final long HOUR = 3_600_000;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rankingKeepsTheTopPostsInDecayedScoreOrder() {
+		TrendingRanking ranking = new TrendingRanking(2, HOUR, 0);
+		ranking.add("old", 4, 0);
+		ranking.add("new", 0.5, 2 * HOUR);
+		ranking.add("newer", 1.5, 2 * HOUR);
+
+		// "old" has halved twice, to 1; "new" fell out of the top two
+		assertThat(ranking.top(10, 2 * HOUR)).containsExactly(
+				new TrendingRanking.Scored("newer", 1.5), new TrendingRanking.Scored("old", 1));
+
+		// Growing past the last of the top brings a post back in
+		ranking.add("new", 1.5, 2 * HOUR);
+		assertThat(ranking.top(1, 2 * HOUR)).containsExactly(new TrendingRanking.Scored("new", 2));
+		assertThat(ranking.top(10, 2 * HOUR)).extracting(TrendingRanking.Scored::postId).containsExactly("new", "newer");
+
+		// A removed post is replaced by the next best one
+		ranking.remove("new");
+		assertThat(ranking.top(10, 2 * HOUR)).extracting(TrendingRanking.Scored::postId).containsExactly("newer", "old");
+
+		// Decay rescales without reordering and forgets what has faded out
+		ranking.decay(6 * HOUR);
+		assertThat(ranking.top(10, 6 * HOUR)).extracting(TrendingRanking.Scored::postId).containsExactly("newer", "old");
+		assertThat(ranking.top(1, 6 * HOUR).get(0).score()).isCloseTo(1.5 / 16, within(1e-9));
+		ranking.decay(12 * HOUR);
+		assertThat(ranking.size()).isZero();
+		assertThat(ranking.top(10, 12 * HOUR)).isEmpty();
+	}
+
+	@Test
+	void likesAndCommentsRankPostsAndDeletedPostsDropOut() {
+		String hot = createPost("hot");
+		String warm = createPost("warm");
+		String gone = createPost("gone");
+		for (int i = 0; i < 3; i++) {
+			likeService.likePost(hot, like("fan-" + i));
+		}
+		createComment(hot);
+		likeService.likePost(warm, like("fan"));
+		createComment(gone);
+
+		Map<String, Double> scores = trendingScores();
+		assertThat(scores.get(hot)).isCloseTo(5, within(0.01));
+		assertThat(scores.get(warm)).isCloseTo(1, within(0.01));
+		List<String> order = trendingService.getTrending(SIZE).stream().map(t -> t.getPost().getId()).toList();
+		assertThat(order.indexOf(hot)).isLessThan(order.indexOf(warm));
+		assertThat(trendingService.getTrending(SIZE)).filteredOn(t -> t.getPost().getId().equals(hot))
+				.singleElement().satisfies(t -> assertThat(t.getPost().getCommentsCount()).isEqualTo(1));
+
+		postService.deletePost(gone);
+		assertThat(trendingScores()).containsKey(hot).doesNotContainKey(gone);
+
+		assertThatThrownBy(() -> trendingService.getTrending(0)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> trendingService.getTrending(SIZE + 1)).isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void scoresSurviveASnapshotAndAreRebuiltFromTheTables() {
+		String before = createPost("before the snapshot");
+		likeService.likePost(before, like("early"));
+		trendingService.snapshot();
+		String after = createPost("after the snapshot");
+		likeService.likePost(after, like("late"));
+		createComment(before);
+		Map<String, Double> live = trendingScores();
+
+		// Snapshot plus the likes and comments inserted after it
+		trendingService.reload();
+		Map<String, Double> reloaded = trendingScores();
+		assertThat(reloaded.get(before)).isCloseTo(live.get(before), within(0.01));
+		assertThat(reloaded.get(after)).isCloseTo(live.get(after), within(0.01));
+
+		// Without a snapshot the scores come from the tables alone
+		jdbcTemplate.update("DELETE FROM trending_snapshot");
+		trendingService.reload();
+		Map<String, Double> rebuilt = trendingScores();
+		assertThat(rebuilt.get(before)).isCloseTo(3, within(0.01));
+		assertThat(rebuilt.get(after)).isCloseTo(1, within(0.01));
+	}
+
+	@Test
+	void activityAfterASnapshotIsReplayedEvenWhereRowidsAreReused() {
+		String quiet = createPost("liked before the snapshot");
+		likeService.likePost(quiet, like("first"));
+		likeService.likePost(quiet, like("last"));
+		trendingService.snapshot();
+		// Frees the highest rowid of likes, which the next like takes again
+		likeService.unlikePost(quiet, like("last"));
+		String revived = createPost("liked after the snapshot");
+		likeService.likePost(revived, like("late"));
+
+		trendingService.reload();
+		assertThat(trendingScores().get(revived)).isCloseTo(1, within(0.01));
+	}
+
+	private Map<String, Double> trendingScores() {
+		return trendingService.getTrending(SIZE).stream()
+				.collect(Collectors.toMap(t -> t.getPost().getId(), TrendingPostResponse::getScore));
+	}
+
+	private String createPost(String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername("trend-" + UUID.randomUUID());
+		request.setContent(content);
+		return postService.createPost(request).getId();
+	}
+
+	private void createComment(String postId) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername("commenter");
+		request.setContent("nice");
+		commentService.createComment(postId, request);
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}
@@ -0,0 +1,120 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentCreateRequest;
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.CursorPage;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.LikedPostResponse;
+import com.contoso.socialapp.dto.PostCreateRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserTimelineTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private LikeService likeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void postsCommentsAndLikesOfOneUserArePagedNewestFirst() {
+		String user = "profile-" + UUID.randomUUID();
+		List<String> posts = new ArrayList<>();
+		List<String> comments = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			posts.add(createPost(user, "mine " + i).getId());
+			PostResponse other = createPost("someone-else", "theirs " + i);
+			comments.add(createComment(other.getId(), user, "reply " + i).getId());
+			createComment(other.getId(), "someone-else", "not mine");
+			likeService.likePost(other.getId(), like(user));
+			likeService.likePost(posts.get(i), like("someone-else"));
+		}
+		List<String> liked = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			liked.add(createPost("someone-else", "liked " + i).getId());
+			likeService.likePost(liked.get(i), like(user + "-liker"));
+		}
+
+		assertThat(walk(cursor -> postService.getPostsByUser(user, cursor, 2), PostResponse::getId))
+				.containsExactlyElementsOf(posts.reversed());
+		assertThat(walk(cursor -> commentService.getCommentsByUser(user, cursor, 2), CommentResponse::getId))
+				.containsExactlyElementsOf(comments.reversed());
+		assertThat(walk(cursor -> likeService.getLikedPosts(user + "-liker", cursor, 2), l -> l.getPost().getId()))
+				.containsExactlyElementsOf(liked.reversed());
+
+		LikedPostResponse latest = likeService.getLikedPosts(user + "-liker", null, 1).getItems().get(0);
+		assertThat(latest.getLikedAt()).isNotNull();
+		assertThat(latest.getPost().getLikesCount()).isEqualTo(1);
+		assertThat(postService.getPostsByUser("nobody-" + UUID.randomUUID(), null, 20).getItems()).isEmpty();
+	}
+
+	@Test
+	void timelinesSeekThroughTheUsernameIndexes() {
+		assertThat(plan("SELECT * FROM posts WHERE username = 'u' AND created_at <= 1 AND (created_at < 1 OR id < 'x') "
+				+ "ORDER BY created_at DESC, id DESC LIMIT 21"))
+				.contains("USING INDEX idx_posts_username_created_at_id (username=? AND created_at<?)")
+				.doesNotContain("TEMP B-TREE");
+		assertThat(plan("SELECT * FROM comments WHERE username = 'u' ORDER BY created_at DESC, id DESC LIMIT 21"))
+				.contains("USING INDEX idx_comments_username_created_at_id (username=?)")
+				.doesNotContain("TEMP B-TREE");
+		assertThat(plan("SELECT p.* FROM likes l JOIN posts p ON p.id = l.post_id WHERE l.username = 'u' "
+				+ "ORDER BY l.created_at DESC, l.post_id DESC LIMIT 21"))
+				.contains("USING COVERING INDEX idx_likes_username_created_at_post_id (username=?)")
+				.doesNotContain("TEMP B-TREE");
+	}
+
+	private <T> List<String> walk(Function<String, CursorPage<T>> fetch, Function<T, String> id) {
+		List<String> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<T> page = fetch.apply(cursor);
+			page.getItems().forEach(item -> ids.add(id.apply(item)));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private String plan(String sql) {
+		return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail")));
+	}
+
+	private PostResponse createPost(String username, String content) {
+		PostCreateRequest request = new PostCreateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return postService.createPost(request);
+	}
+
+	private CommentResponse createComment(String postId, String username, String content) {
+		CommentCreateRequest request = new CommentCreateRequest();
+		request.setUsername(username);
+		request.setContent(content);
+		return commentService.createComment(postId, request);
+	}
+
+	private static LikeRequest like(String username) {
+		LikeRequest request = new LikeRequest();
+		request.setUsername(username);
+		return request;
+	}
+}